@@ -1,11 +1,135 @@
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import javax.management.JMException;
+import db.TempStudentStorage;
+import entities.CourseCatalog;
+import input.LineReader;
+import input.PipelinedInputService;
+import metrics.Metrics;
+import notification.NotificationDispatcher;
+import server.TrackerServer;
 import session.Session;
+import ui.BufferedOutputSink;
+import ui.ConsoleOutputSink;
+import ui.FullTranscript;
+import ui.NoTranscript;
+import ui.OutputSink;
+import ui.RingTranscript;
 
 public class Main {
 
-  public static void main(String[] args) {
+  public static void main(String[] args) throws IOException {
+    //--journal <file>: хранить данные в журнале и восстанавливать их при запуске
+    //--snapshot <file>: загружать снимок при запуске и читать из журнала только хвост после него
+    Path journal = null;
+    Path snapshot = null;
+    //--store <file>: вместо журнала хранить студентов в отображенном в память файле записей;
+    //индекс email и агрегаты строятся при открытии проходом по всем записям
+    Path store = null;
+    //--outbox <dir>: уведомления доставляются в фоне через outbox, письма - в <dir>/mail
+    Path outbox = null;
+    //--output direct|buffered: по умолчанию вывод пишется сразу; буферизованный вывод
+    //сбрасывается после каждой команды и всякий раз, когда приходится ждать ввод
+    boolean isDirectOutput = true;
+    //--input direct|pipelined: по умолчанию строки читаются по одной в потоке сессии
+    boolean isPipelinedInput = false;
+    //--transcript off|ring|full: копия вывода команды в памяти, по умолчанию не ведется
+    String transcript = "off";
+    //--metrics on|off: метрики команд, команда metrics и JMX-объект tracker:type=Metrics
+    boolean isMetricsEnabled = false;
+    //--server <port>: вместо консоли принимать клиентов по TCP, у каждого своя сессия
+    Integer port = null;
+    //--courses <file>: курсы из файла определений вместо встроенных
+    Path courses = null;
+    for (int i = 0; i < args.length - 1; i++) {
+      if ("--journal".equals(args[i])) {
+        journal = Path.of(args[i + 1]);
+      } else if ("--snapshot".equals(args[i])) {
+        snapshot = Path.of(args[i + 1]);
+      } else if ("--store".equals(args[i])) {
+        store = Path.of(args[i + 1]);
+      } else if ("--outbox".equals(args[i])) {
+        outbox = Path.of(args[i + 1]);
+      } else if ("--output".equals(args[i])) {
+        isDirectOutput = "direct".equals(args[i + 1]);
+      } else if ("--input".equals(args[i])) {
+        isPipelinedInput = "pipelined".equals(args[i + 1]);
+      } else if ("--transcript".equals(args[i])) {
+        transcript = args[i + 1];
+      } else if ("--metrics".equals(args[i])) {
+        isMetricsEnabled = "on".equals(args[i + 1]);
+      } else if ("--server".equals(args[i])) {
+        port = Integer.parseInt(args[i + 1]);
+      } else if ("--courses".equals(args[i])) {
+        courses = Path.of(args[i + 1]);
+      }
+    }
+    //каталог задается до первого обращения к хранилищу
+    if (courses != null) {
+      CourseCatalog.setCurrent(CourseCatalog.load(courses));
+    }
+    if (store != null) {
+      TempStudentStorage.openStore(store);
+    } else if (journal != null) {
+      TempStudentStorage.openJournal(journal, snapshot);
+    }
+    if (outbox != null) {
+      NotificationDispatcher.open(outbox);
+    }
+    if (isMetricsEnabled) {
+      Metrics.setEnabled(true);
+      try {
+        Metrics.registerMBean();
+      } catch (JMException e) {
+        System.err.println("Metrics are not available in JMX: " + e.getMessage());
+      }
+    }
+    if (port != null) {
+      serve(port);
+      return;
+    }
 
-    Session session = new Session();
+    OutputSink output = isDirectOutput ? new ConsoleOutputSink()
+        : new BufferedOutputSink(new FileOutputStream(FileDescriptor.out),
+            System.out.charset(), BufferedOutputSink.DEFAULT_BUFFER_SIZE);
+    Session session = isPipelinedInput ? new Session(
+        new PipelinedInputService(System.in, LineReader.DEFAULT_BUFFER_SIZE,
+            PipelinedInputService.DEFAULT_QUEUE_CAPACITY), output) : new Session(output);
+    if ("full".equals(transcript)) {
+      session.getUi().setTranscript(new FullTranscript());
+    } else if ("ring".equals(transcript)) {
+      session.getUi().setTranscript(new RingTranscript(RingTranscript.DEFAULT_CAPACITY));
+    } else {
+      session.getUi().setTranscript(new NoTranscript());
+    }
     session.start();
+    NotificationDispatcher.closeCurrent();
+    TempStudentStorage.closeJournal();
+    TempStudentStorage.closeStore();
+  }
+
+  //сервер работает до остановки процесса; при остановке данные сохраняются
+  private static void serve(int port) throws IOException {
+    TrackerServer server = TrackerServer.start(port);
+    System.out.println("Learning Progress Tracker is listening on port " + server.getPort());
+    Thread shutdown = new Thread(() -> {
+      try {
+        server.close();
+        NotificationDispatcher.closeCurrent();
+        TempStudentStorage.closeJournal();
+        TempStudentStorage.closeStore();
+      } catch (IOException e) {
+        System.err.println("Failed to stop server: " + e.getMessage());
+      }
+    });
+    Runtime.getRuntime().addShutdownHook(shutdown);
+    try {
+      Thread.currentThread().join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
   }
 
 }
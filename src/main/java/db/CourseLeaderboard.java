@@ -0,0 +1,82 @@
+package db;
+
+import entities.PointsListener;
+import entities.Student;
+
+//рейтинг студентов каждого курса по убыванию баллов, при равенстве - по возрастанию id;
+//в рейтинг попадают только студенты с баллами, обновляется при каждом начислении.
+//Рейтинг каждого курса защищен своим монитором
+public class CourseLeaderboard implements PointsListener {
+
+  private final SortedLongSet[] rankings;
+
+  public interface Row {
+
+    void accept(int id, int points);
+  }
+
+  public CourseLeaderboard(int courses) {
+    rankings = new SortedLongSet[courses];
+    for (int course = 0; course < courses; course++) {
+      rankings[course] = new SortedLongSet();
+    }
+  }
+
+  //ключ упорядочен как (баллы по убыванию, id по возрастанию)
+  private static long key(int points, int id) {
+    return (long) (Integer.MAX_VALUE - points) << Integer.SIZE | id;
+  }
+
+  public void addStudent(Student student) {
+    for (int course = 0; course < rankings.length; course++) {
+      int points = student.getPoint(course);
+      if (points > 0) {
+        synchronized (rankings[course]) {
+          rankings[course].add(key(points, student.getId()));
+        }
+      }
+    }
+  }
+
+  @Override
+  public void onPointsAdded(Student student, int course, int addedPoints, int oldPoints) {
+    int newPoints = student.getPoint(course);
+    if (newPoints == oldPoints) {
+      return;
+    }
+    SortedLongSet ranking = rankings[course];
+    synchronized (ranking) {
+      if (oldPoints > 0) {
+        ranking.remove(key(oldPoints, student.getId()));
+      }
+      if (newPoints > 0) {
+        ranking.add(key(newPoints, student.getId()));
+      }
+    }
+  }
+
+  //передает первые limit строк рейтинга курса на один момент времени: под монитором
+  //строки только копируются, поэтому начисления не ждут вывода
+  public void forEachTop(int course, int limit, Row row) {
+    forEach(head(course, limit), row);
+  }
+
+  //ключи первых limit строк рейтинга курса, см. forEach
+  long[] head(int course, int limit) {
+    synchronized (rankings[course]) {
+      return rankings[course].head(limit);
+    }
+  }
+
+  static void forEach(long[] keys, Row row) {
+    for (long key : keys) {
+      row.accept((int) key, Integer.MAX_VALUE - (int) (key >>> Integer.SIZE));
+    }
+  }
+
+  public int getSize(int course) {
+    synchronized (rankings[course]) {
+      return rankings[course].size();
+    }
+  }
+}
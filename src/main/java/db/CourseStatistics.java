@@ -0,0 +1,391 @@
+package db;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import entities.CourseCatalog;
+import entities.PointsListener;
+import entities.Student;
+
+//агрегаты по курсам, обновляются при регистрации студентов и начислении баллов,
+//поэтому обзор статистики считается за O(количество курсов).
+//Счетчики разбиты на полосы, полоса студента выбирается по id, и все его события попадают в нее.
+//Полоса пишется под своим монитором и защищена версией (seqlock): нечетная версия - идет запись.
+//snapshot() копирует все полосы без блокировок и принимает копию, только если ни одна версия
+//за время копирования не изменилась, поэтому снимок соответствует одному моменту времени.
+//Рейтинг курсов, если он передан, меняется в той же записи полосы и копируется в тот же момент.
+//События одного студента приходят по очереди, см. Student.addPoint
+public class CourseStatistics implements PointsListener {
+
+  private static final int VERSION = 0;
+  private static final int STUDENTS = 1;
+  private static final int ENROLLED_STUDENTS = 2;
+  private static final int COURSE_COUNTERS = 3;
+  //полос не меньше, чем потоков, которые могут писать одновременно
+  private static final int STRIPES = Math.min(64,
+      Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) << 1);
+  //соседние полосы не делят строку кэша
+  private static final int PADDING = 8;
+  private static final VarHandle COUNTER = MethodHandles.arrayElementVarHandle(long[].class);
+  //столько раз снимок копируется без блокировок, затем - под мониторами всех полос
+  private static final int OPTIMISTIC_ATTEMPTS = 4;
+  //с этого размера студенты при массовом добавлении считаются параллельно
+  public static final int PARALLEL_THRESHOLD = 1 << 16;
+  //размер части хранилища, которую задача fork/join считает сама
+  private static final int PARTITION_SIZE = 1 << 13;
+
+  private final String[] courseNames;
+  private final int length;
+  //[версия, студенты, учащиеся, по курсам: учащиеся..., баллы..., сдачи...]; индекс курса = id - 1
+  private final long[][] stripes = new long[STRIPES][];
+  //обновляется вместе со счетчиками полосы студента; null - рейтинг не ведется
+  private final CourseLeaderboard leaderboard;
+
+  public CourseStatistics() {
+    this(null);
+  }
+
+  public CourseStatistics(CourseLeaderboard leaderboard) {
+    this.leaderboard = leaderboard;
+    courseNames = CourseCatalog.getCurrent().getNames();
+    length = COURSE_COUNTERS + 3 * courseNames.length;
+    for (int stripe = 0; stripe < STRIPES; stripe++) {
+      stripes[stripe] = new long[length + PADDING];
+    }
+  }
+
+  public StatisticsSnapshot snapshot() {
+    return snapshot(-1, 0);
+  }
+
+  //согласованная копия агрегатов и, если course >= 0, первых limit строк рейтинга курса.
+  //Версии всех полос читаются до копирования и сверяются после него; если писатели мешают
+  //несколько раз подряд, копия делается под мониторами всех полос, и писатели ее ждут
+  public StatisticsSnapshot snapshot(int course, int limit) {
+    long[] versions = new long[STRIPES];
+    long[] total = new long[length];
+    long[] top = null;
+    boolean isCopied = false;
+    for (int attempt = 0; attempt < OPTIMISTIC_ATTEMPTS && !isCopied; attempt++) {
+      if (!readVersions(versions)) {
+        Thread.yield();
+        continue;
+      }
+      top = copy(total, course, limit);
+      VarHandle.loadLoadFence();
+      isCopied = isUnchanged(versions);
+    }
+    if (!isCopied) {
+      top = copyLocked(0, total, course, limit);
+    }
+    int courses = courseNames.length;
+    return new StatisticsSnapshot(courseNames, total[STUDENTS], total[ENROLLED_STUDENTS],
+        Arrays.copyOfRange(total, enrolledIndex(0), enrolledIndex(courses)),
+        Arrays.copyOfRange(total, pointsIndex(0), pointsIndex(courses)),
+        Arrays.copyOfRange(total, submissionsIndex(0), submissionsIndex(courses)), top);
+  }
+
+  //false, если в какую-то полосу сейчас идет запись
+  private boolean readVersions(long[] versions) {
+    for (int stripe = 0; stripe < STRIPES; stripe++) {
+      versions[stripe] = (long) COUNTER.getAcquire(stripes[stripe], VERSION);
+      if ((versions[stripe] & 1) != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean isUnchanged(long[] versions) {
+    for (int stripe = 0; stripe < STRIPES; stripe++) {
+      if ((long) COUNTER.getOpaque(stripes[stripe], VERSION) != versions[stripe]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  //складывает полосы в total и копирует строки рейтинга курса
+  private long[] copy(long[] total, int course, int limit) {
+    Arrays.fill(total, 0);
+    for (long[] counters : stripes) {
+      for (int i = STUDENTS; i < length; i++) {
+        total[i] += counters[i];
+      }
+    }
+    return course < 0 || leaderboard == null ? null : leaderboard.head(course, limit);
+  }
+
+  //мониторы берутся по порядку полос, а писатель держит только один, поэтому взаимной
+  //блокировки нет
+  private long[] copyLocked(int stripe, long[] total, int course, int limit) {
+    if (stripe == STRIPES) {
+      return copy(total, course, limit);
+    }
+    synchronized (stripes[stripe]) {
+      return copyLocked(stripe + 1, total, course, limit);
+    }
+  }
+
+  private int enrolledIndex(int course) {
+    return COURSE_COUNTERS + course;
+  }
+
+  private int pointsIndex(int course) {
+    return COURSE_COUNTERS + courseNames.length + course;
+  }
+
+  private int submissionsIndex(int course) {
+    return COURSE_COUNTERS + 2 * courseNames.length + course;
+  }
+
+  private long[] stripe(Student student) {
+    return stripes[student.getId() & STRIPES - 1];
+  }
+
+  //начинает запись в полосу: версия становится нечетной раньше, чем меняются счетчики
+  private static long beginWrite(long[] counters) {
+    long version = counters[VERSION];
+    COUNTER.setOpaque(counters, VERSION, version + 1);
+    VarHandle.storeStoreFence();
+    return version;
+  }
+
+  private static void endWrite(long[] counters, long version) {
+    COUNTER.setRelease(counters, VERSION, version + 2);
+  }
+
+  //прибавляет delta к полосе; используется для массовых изменений
+  private void update(long[] counters, long[] delta) {
+    synchronized (counters) {
+      long version = beginWrite(counters);
+      for (int i = STUDENTS; i < length; i++) {
+        counters[i] += delta[i];
+      }
+      endWrite(counters, version);
+    }
+  }
+
+  public void addStudent(Student student) {
+    long[] counters = stripe(student);
+    synchronized (counters) {
+      long version = beginWrite(counters);
+      counters[STUDENTS]++;
+      boolean isEnrolled = false;
+      for (int course = 0; course < courseNames.length; course++) {
+        int points = student.getPoint(course);
+        if (points > 0) {
+          counters[enrolledIndex(course)]++;
+          isEnrolled = true;
+        }
+        counters[pointsIndex(course)] += points;
+      }
+      if (isEnrolled) {
+        counters[ENROLLED_STUDENTS]++;
+      }
+      if (leaderboard != null) {
+        leaderboard.addStudent(student);
+      }
+      endWrite(counters, version);
+    }
+  }
+
+  //добавляет студентов одним обновлением счетчиков; результат тот же, что у addStudent
+  //для каждого, но большие списки считаются параллельно частями.
+  //Вызывается, пока другие потоки хранилище не меняют, поэтому пишет в одну полосу;
+  //рейтинг при этом не обновляется, студенты добавляются в него отдельно
+  public void addStudents(List<Student> students) {
+    addStudents(students, PARALLEL_THRESHOLD);
+  }
+
+  public void addStudents(List<Student> students, int parallelThreshold) {
+    long[] delta = students.size() < parallelThreshold
+        ? new Aggregation(students, 0, students.size(), length).compute()
+        : ForkJoinPool.commonPool()
+            .invoke(new Aggregation(students, 0, students.size(), length));
+    update(stripes[0], delta);
+  }
+
+  //приращения счетчиков от студентов [from, to): части больше PARTITION_SIZE делятся пополам,
+  //каждая считается в свой массив long, массивы складываются. Сложение целых ассоциативно,
+  //поэтому результат не зависит от разбиения
+  private class Aggregation extends RecursiveTask<long[]> {
+
+    private final List<Student> students;
+    private final int from;
+    private final int to;
+    private final int length;
+
+    private Aggregation(List<Student> students, int from, int to, int length) {
+      this.students = students;
+      this.from = from;
+      this.to = to;
+      this.length = length;
+    }
+
+    @Override
+    protected long[] compute() {
+      if (to - from <= PARTITION_SIZE || getPool() == null) {
+        return accumulate();
+      }
+      int middle = (from + to) >>> 1;
+      Aggregation upper = new Aggregation(students, middle, to, length);
+      upper.fork();
+      long[] delta = new Aggregation(students, from, middle, length).compute();
+      long[] upperDelta = upper.join();
+      for (int i = 0; i < delta.length; i++) {
+        delta[i] += upperDelta[i];
+      }
+      return delta;
+    }
+
+    private long[] accumulate() {
+      long[] delta = new long[length];
+      for (int i = from; i < to; i++) {
+        Student student = students.get(i);
+        boolean isEnrolled = false;
+        for (int course = 0; course < courseNames.length; course++) {
+          int points = student.getPoint(course);
+          if (points > 0) {
+            delta[enrolledIndex(course)]++;
+            isEnrolled = true;
+          }
+          delta[pointsIndex(course)] += points;
+        }
+        if (isEnrolled) {
+          delta[ENROLLED_STUDENTS]++;
+        }
+      }
+      delta[STUDENTS] += to - from;
+      return delta;
+    }
+  }
+
+  //сдачи не восстанавливаются по баллам студентов, поэтому при загрузке снимка
+  //их число по курсам добавляется отдельно
+  public void addSubmissions(long[] submissions) {
+    long[] delta = new long[length];
+    for (int course = 0; course < submissions.length; course++) {
+      delta[submissionsIndex(course)] = submissions[course];
+    }
+    update(stripes[0], delta);
+  }
+
+  //счетчики меняются прямо в полосе студента, без промежуточных массивов
+  @Override
+  public void onPointsAdded(Student student, int course, int addedPoints, int oldPoints) {
+    int newPoints = student.getPoint(course);
+    int enrolled = 0;
+    int enrolledStudents = 0;
+    if (oldPoints <= 0 && newPoints > 0) {
+      enrolled = 1;
+      //студент стал учащимся, если до этого баллов не было ни по одному предмету
+      if (isOnlyEnrolledCourse(student, course)) {
+        enrolledStudents = 1;
+      }
+    } else if (oldPoints > 0 && newPoints <= 0) {
+      enrolled = -1;
+      if (!student.isEnrolled()) {
+        enrolledStudents = -1;
+      }
+    }
+    long[] counters = stripe(student);
+    synchronized (counters) {
+      long version = beginWrite(counters);
+      counters[pointsIndex(course)] += newPoints - oldPoints;
+      if (addedPoints > 0) {
+        counters[submissionsIndex(course)]++;
+      }
+      counters[enrolledIndex(course)] += enrolled;
+      counters[ENROLLED_STUDENTS] += enrolledStudents;
+      if (leaderboard != null) {
+        leaderboard.onPointsAdded(student, course, addedPoints, oldPoints);
+      }
+      endWrite(counters, version);
+    }
+  }
+
+  //начисление по всем курсам - одна запись в полосу вместо записи на каждый курс
+  @Override
+  public void onPointsAdded(Student student, int[] addedPoints, int[] oldPoints) {
+    long[] counters = stripe(student);
+    synchronized (counters) {
+      long version = beginWrite(counters);
+      boolean wasEnrolled = false;
+      boolean isEnrolled = false;
+      for (int course = 0; course < courseNames.length; course++) {
+        int newPoints = student.getPoint(course);
+        wasEnrolled |= oldPoints[course] > 0;
+        isEnrolled |= newPoints > 0;
+        if (addedPoints[course] <= 0) {
+          continue;
+        }
+        counters[pointsIndex(course)] += newPoints - oldPoints[course];
+        counters[submissionsIndex(course)]++;
+        if (oldPoints[course] <= 0 && newPoints > 0) {
+          counters[enrolledIndex(course)]++;
+        }
+      }
+      counters[ENROLLED_STUDENTS] += (isEnrolled ? 1 : 0) - (wasEnrolled ? 1 : 0);
+      if (leaderboard != null) {
+        leaderboard.onPointsAdded(student, addedPoints, oldPoints);
+      }
+      endWrite(counters, version);
+    }
+  }
+
+  private boolean isOnlyEnrolledCourse(Student student, int course) {
+    for (int other = 0; other < courseNames.length; other++) {
+      if (other != course && student.getPoint(other) > 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public int getCoursesCount() {
+    return courseNames.length;
+  }
+
+  public String getCourseName(int course) {
+    return courseNames[course];
+  }
+
+  //сумма счетчика по полосам без согласования с другими счетчиками, как LongAdder.sum();
+  //для нескольких показателей сразу нужен snapshot()
+  private long sum(int index) {
+    long sum = 0;
+    for (long[] counters : stripes) {
+      sum += (long) COUNTER.getOpaque(counters, index);
+    }
+    return sum;
+  }
+
+  public long getEnrolled(int course) {
+    return sum(enrolledIndex(course));
+  }
+
+  public long getPoints(int course) {
+    return sum(pointsIndex(course));
+  }
+
+  public double getAveragePoints(int course) {
+    long students = sum(STUDENTS);
+    return students == 0 ? 0 : (double) sum(pointsIndex(course)) / students;
+  }
+
+  public long getSubmissions(int course) {
+    return sum(submissionsIndex(course));
+  }
+
+  public long getStudents() {
+    return sum(STUDENTS);
+  }
+
+  public long getEnrolledStudents() {
+    return sum(ENROLLED_STUDENTS);
+  }
+}
@@ -0,0 +1,280 @@
+package db;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+//журнал упреждающей записи: регистрации, начисления баллов и отметки об уведомлении.
+//Заголовок: magic, версия, число курсов; курсы журнала должны совпадать с каталогом.
+//Запись: [int длина][byte тип][данные][int crc32 типа и данных], id курса - int.
+//Записи копятся в буфере, sync() сбрасывает их одним fsync на всех ожидающих (group commit)
+public class Journal implements Closeable {
+
+  private static final byte REGISTER = 1;
+  private static final byte POINTS = 2;
+  private static final byte NOTIFIED = 3;
+  private static final int MAGIC = 0x4C50544A;
+  private static final int VERSION = 2;
+  private static final int FILE_HEADER_SIZE = 3 * Integer.BYTES;
+  private static final int HEADER_SIZE = Integer.BYTES;
+  private static final int CRC_SIZE = Integer.BYTES;
+  private static final int BUFFER_SIZE = 1 << 20;
+
+  private final FileChannel channel;
+  private final Object lock = new Object();
+  private final CRC32 crc = new CRC32();
+  private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+  private ByteBuffer flushing = ByteBuffer.allocate(BUFFER_SIZE);
+  private long appended;
+  private long durable;
+  private boolean isSyncing;
+  //логический конец журнала с учетом записей, еще лежащих в буфере
+  private long end;
+
+  public interface Handler {
+
+    void onRegister(int id, String name, String lastname, String email);
+
+    void onPointsAdded(int id, int subjectId, int addedPoints);
+
+    void onNotified(int id, int subjectId);
+  }
+
+  private Journal(FileChannel channel) {
+    this.channel = channel;
+  }
+
+  //новый журнал получает заголовок с числом курсов, у существующего оно проверяется
+  public static Journal open(Path file, int courses) throws IOException {
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+      if (channel.size() == 0) {
+        header.putInt(MAGIC).putInt(VERSION).putInt(courses).flip();
+        while (header.hasRemaining()) {
+          channel.write(header);
+        }
+      } else if (channel.read(header, 0) < FILE_HEADER_SIZE || header.getInt(0) != MAGIC
+          || header.getInt(Integer.BYTES) != VERSION) {
+        throw new IOException("Unsupported journal format: " + file);
+      } else if (header.getInt(2 * Integer.BYTES) != courses) {
+        throw new IOException("Journal has " + header.getInt(2 * Integer.BYTES)
+            + " courses instead of " + courses + ": " + file);
+      }
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+    return new Journal(channel);
+  }
+
+  //читает журнал с позиции from; поврежденный или недописанный хвост отрезается,
+  //после чего новые записи добавляются в конец; возвращает число прочитанных записей
+  public long replay(long from, Handler handler) throws IOException {
+    ByteBuffer input = ByteBuffer.allocate(BUFFER_SIZE);
+    CRC32 replayCrc = new CRC32();
+    //журнал короче ожидаемого (например, утерян после снимка): начинаем с его конца
+    long position = Math.max(FILE_HEADER_SIZE, Math.min(from, channel.size()));
+    long records = 0;
+    channel.position(position);
+    boolean isEndOfFile = false;
+    while (!isEndOfFile) {
+      isEndOfFile = channel.read(input) < 0;
+      input.flip();
+      while (input.remaining() >= HEADER_SIZE) {
+        int start = input.position();
+        int length = input.getInt(start);
+        if (length <= 0 || length > input.capacity() - HEADER_SIZE - CRC_SIZE) {
+          isEndOfFile = true;
+          break;
+        }
+        if (input.remaining() < HEADER_SIZE + length + CRC_SIZE) {
+          break;
+        }
+        replayCrc.reset();
+        replayCrc.update(input.array(), start + HEADER_SIZE, length);
+        if ((int) replayCrc.getValue() != input.getInt(start + HEADER_SIZE + length)) {
+          isEndOfFile = true;
+          break;
+        }
+        input.position(start + HEADER_SIZE);
+        decode(input, handler);
+        input.position(start + HEADER_SIZE + length + CRC_SIZE);
+        position += HEADER_SIZE + length + CRC_SIZE;
+        records++;
+      }
+      input.compact();
+      if (input.position() == input.capacity()) {
+        //запись не помещается в буфер, значит длина повреждена
+        break;
+      }
+    }
+    channel.truncate(position);
+    channel.position(position);
+    synchronized (lock) {
+      end = position;
+    }
+    return records;
+  }
+
+  private void decode(ByteBuffer input, Handler handler) {
+    byte type = input.get();
+    int id = input.getInt();
+    switch (type) {
+      case REGISTER:
+        handler.onRegister(id, getString(input), getString(input), getString(input));
+        break;
+      case POINTS:
+        handler.onPointsAdded(id, input.getInt(), input.getInt());
+        break;
+      case NOTIFIED:
+        handler.onNotified(id, input.getInt());
+        break;
+      default:
+        throw new IllegalStateException("Unknown journal record type " + type);
+    }
+  }
+
+  public void appendRegister(int id, String name, String lastname, String email) {
+    byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+    byte[] lastnameBytes = lastname.getBytes(StandardCharsets.UTF_8);
+    byte[] emailBytes = email.getBytes(StandardCharsets.UTF_8);
+    int length = 1 + Integer.BYTES + 3 * Integer.BYTES + nameBytes.length
+        + lastnameBytes.length + emailBytes.length;
+    synchronized (lock) {
+      int start = beginRecord(length, REGISTER, id);
+      buffer.putInt(nameBytes.length).put(nameBytes);
+      buffer.putInt(lastnameBytes.length).put(lastnameBytes);
+      buffer.putInt(emailBytes.length).put(emailBytes);
+      endRecord(start, length);
+    }
+  }
+
+  public void appendPoints(int id, int subjectId, int addedPoints) {
+    int length = 1 + Integer.BYTES + Integer.BYTES + Integer.BYTES;
+    synchronized (lock) {
+      int start = beginRecord(length, POINTS, id);
+      buffer.putInt(subjectId).putInt(addedPoints);
+      endRecord(start, length);
+    }
+  }
+
+  public void appendNotified(int id, int subjectId) {
+    int length = 1 + Integer.BYTES + Integer.BYTES;
+    synchronized (lock) {
+      int start = beginRecord(length, NOTIFIED, id);
+      buffer.putInt(subjectId);
+      endRecord(start, length);
+    }
+  }
+
+  private int beginRecord(int length, byte type, int id) {
+    int size = HEADER_SIZE + length + CRC_SIZE;
+    if (buffer.remaining() < size) {
+      writeBuffer();
+      if (buffer.capacity() < size) {
+        buffer = ByteBuffer.allocate(size);
+      }
+    }
+    int start = buffer.position();
+    buffer.putInt(length).put(type).putInt(id);
+    return start;
+  }
+
+  private void endRecord(int start, int length) {
+    crc.reset();
+    crc.update(buffer.array(), start + HEADER_SIZE, length);
+    buffer.putInt((int) crc.getValue());
+    end += HEADER_SIZE + length + CRC_SIZE;
+    appended++;
+  }
+
+  //буфер переполнен: пишем его без fsync, но после текущего сброса, чтобы сохранить порядок
+  private void writeBuffer() {
+    try {
+      while (isSyncing) {
+        lock.wait();
+      }
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+
+  //возвращает управление, когда все записи, добавленные до вызова, сохранены на диск;
+  //одновременные вызовы обслуживаются одним fsync
+  public void sync() throws IOException {
+    long batchEnd;
+    ByteBuffer toWrite;
+    synchronized (lock) {
+      long target = appended;
+      while (durable < target && isSyncing) {
+        try {
+          lock.wait();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IOException(e);
+        }
+      }
+      if (durable >= target) {
+        return;
+      }
+      isSyncing = true;
+      batchEnd = appended;
+      toWrite = buffer;
+      buffer = flushing;
+      buffer.clear();
+      flushing = toWrite;
+    }
+    boolean isWritten = false;
+    try {
+      toWrite.flip();
+      while (toWrite.hasRemaining()) {
+        channel.write(toWrite);
+      }
+      channel.force(false);
+      isWritten = true;
+    } finally {
+      synchronized (lock) {
+        if (isWritten) {
+          durable = batchEnd;
+        }
+        isSyncing = false;
+        lock.notifyAll();
+      }
+    }
+  }
+
+  public long size() {
+    synchronized (lock) {
+      return end;
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    sync();
+    channel.close();
+  }
+
+  private static String getString(ByteBuffer input) {
+    int length = input.getInt();
+    String value = new String(input.array(), input.position(), length, StandardCharsets.UTF_8);
+    input.position(input.position() + length);
+    return value;
+  }
+}
@@ -0,0 +1,126 @@
+package db;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import entities.PointsListener;
+import entities.Student;
+
+//курсы студентов, по которым нужно отправить уведомление (баллы есть, уведомления не было);
+//пополняется при начислении баллов, поэтому notify обходит только новые записи.
+//Очередь защищена своим монитором; уведомления отправляются вне его, так как отметка
+//студента берет блокировку его полосы, под которой очередь и пополняется.
+//Выборки идут по одной: иначе курс, снова поставленный в очередь до отметки, мог бы
+//уйти второй выборкой, пока первая его отправляет
+public class NotificationQueue implements PointsListener {
+
+  private final int courses;
+  //запись очереди: id студента и курс в одном long
+  private long[] pending = new long[64];
+  private int size;
+  //защищает от повторной постановки одного курса студента: по битсету на курс, бит - id
+  private final BitSet[] isQueued;
+  private final Object draining = new Object();
+
+  public interface Notification {
+
+    void send(Student student, int course);
+  }
+
+  public NotificationQueue(int courses) {
+    this.courses = courses;
+    isQueued = new BitSet[courses];
+    for (int course = 0; course < courses; course++) {
+      isQueued[course] = new BitSet();
+    }
+  }
+
+  public void addStudent(Student student) {
+    for (int course = 0; course < courses; course++) {
+      offer(student, course);
+    }
+  }
+
+  @Override
+  public void onPointsAdded(Student student, int course, int addedPoints, int oldPoints) {
+    if (oldPoints <= 0) {
+      offer(student, course);
+    }
+  }
+
+  private synchronized void offer(Student student, int course) {
+    if (!isEligible(student, course)) {
+      return;
+    }
+    if (isQueued[course].get(student.getId())) {
+      return;
+    }
+    isQueued[course].set(student.getId());
+    if (size == pending.length) {
+      pending = Arrays.copyOf(pending, size * 2);
+    }
+    pending[size++] = (long) student.getId() << Integer.SIZE | course;
+  }
+
+  private static boolean isEligible(Student student, int course) {
+    return !student.isNotified(course) && student.getPoint(course) > 0;
+  }
+
+  //отправляет уведомления по возрастанию id, а у студента - по порядку курсов, и отмечает
+  //курсы уведомленными; записи, переставшие подходить под правило, пропускаются.
+  //Возвращает количество уведомленных студентов
+  public int drain(Notification notification) {
+    synchronized (draining) {
+      return drainQueued(notification);
+    }
+  }
+
+  private int drainQueued(Notification notification) {
+    long[] drained;
+    synchronized (this) {
+      drained = Arrays.copyOf(pending, size);
+      size = 0;
+      //снимаются только биты выбранных записей, а не весь битсет
+      for (long entry : drained) {
+        isQueued[(int) entry].clear((int) (entry >>> Integer.SIZE));
+      }
+    }
+    Arrays.sort(drained);
+    int students = 0;
+    int lastId = -1;
+    for (int i = 0; i < drained.length; i++) {
+      int id = (int) (drained[i] >>> Integer.SIZE);
+      int course = (int) drained[i];
+      Student student = TempStudentStorage.getStudentById(id).orElse(null);
+      if (student == null || !isEligible(student, course)) {
+        continue;
+      }
+      try {
+        notification.send(student, course);
+      } catch (RuntimeException e) {
+        //неотправленные записи возвращаются в очередь
+        requeue(drained, i);
+        throw e;
+      }
+      student.setNotified(course);
+      if (id != lastId) {
+        students++;
+        lastId = id;
+      }
+    }
+    return students;
+  }
+
+  private void requeue(long[] drained, int from) {
+    for (int i = from; i < drained.length; i++) {
+      Student student = TempStudentStorage.getStudentById((int) (drained[i] >>> Integer.SIZE))
+          .orElse(null);
+      if (student != null) {
+        offer(student, (int) drained[i]);
+      }
+    }
+  }
+
+  public synchronized int size() {
+    return size;
+  }
+}
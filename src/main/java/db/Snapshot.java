@@ -0,0 +1,196 @@
+package db;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import entities.Student;
+
+//снимок хранилища в компактном двоичном виде.
+//Заголовок: magic, версия, смещение в журнале, следующий id, число курсов, число студентов,
+//число сдач по каждому курсу (в студентах оно не хранится);
+//студент: id, баллы по курсам, биты уведомлений (байт на 8 курсов),
+//имя, фамилия и email (short длина + UTF-8)
+public class Snapshot {
+
+  private static final int MAGIC = 0x4C505453;
+  private static final int VERSION = 3;
+  private static final int BUFFER_SIZE = 1 << 16;
+  private static final int MAX_STRING_LENGTH = 0xFFFF;
+
+  private final long journalOffset;
+  private final int nextId;
+  private final int courses;
+  private final int count;
+  private long[] submissions;
+  //состояние, скопированное в момент снимка; строки неизменяемы и не копируются
+  private int[] ids;
+  private int[] points;
+  //биты уведомлений студентов подряд, по notifiedBytes байт на студента
+  private byte[] notified;
+  private String[] names;
+  private String[] lastnames;
+  private String[] emails;
+
+  private Snapshot(long journalOffset, int nextId, int courses, int count) {
+    this.journalOffset = journalOffset;
+    this.nextId = nextId;
+    this.courses = courses;
+    this.count = count;
+  }
+
+  //быстрая копия состояния; запись на диск затем может идти в фоне
+  public static Snapshot capture(List<Student> students, CourseStatistics statistics,
+      int nextId, long journalOffset) {
+    int courses = Student.getCoursesCount();
+    int notifiedBytes = notifiedBytes(courses);
+    Snapshot snapshot = new Snapshot(journalOffset, nextId, courses, students.size());
+    snapshot.submissions = new long[courses];
+    for (int course = 0; course < courses; course++) {
+      snapshot.submissions[course] = statistics.getSubmissions(course);
+    }
+    snapshot.ids = new int[snapshot.count];
+    snapshot.points = new int[snapshot.count * courses];
+    snapshot.notified = new byte[snapshot.count * notifiedBytes];
+    snapshot.names = new String[snapshot.count];
+    snapshot.lastnames = new String[snapshot.count];
+    snapshot.emails = new String[snapshot.count];
+    for (int i = 0; i < snapshot.count; i++) {
+      Student student = students.get(i);
+      snapshot.ids[i] = student.getId();
+      snapshot.names[i] = student.getName();
+      snapshot.lastnames[i] = student.getLastname();
+      snapshot.emails[i] = student.getEmail();
+      for (int course = 0; course < courses; course++) {
+        snapshot.points[i * courses + course] = student.getPoint(course);
+        if (student.isNotified(course)) {
+          snapshot.notified[i * notifiedBytes + course / Byte.SIZE] |= 1 << course % Byte.SIZE;
+        }
+      }
+    }
+    return snapshot;
+  }
+
+  //пишет во временный файл и атомарно заменяет им прежний снимок
+  public void write(Path file) throws IOException {
+    Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+    try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      OutputStream channelOutput = Channels.newOutputStream(channel);
+      DataOutputStream output = new DataOutputStream(
+          new BufferedOutputStream(channelOutput, BUFFER_SIZE));
+      output.writeInt(MAGIC);
+      output.writeInt(VERSION);
+      output.writeLong(journalOffset);
+      output.writeInt(nextId);
+      output.writeInt(courses);
+      output.writeInt(count);
+      int notifiedBytes = notifiedBytes(courses);
+      for (long courseSubmissions : submissions) {
+        output.writeLong(courseSubmissions);
+      }
+      for (int i = 0; i < count; i++) {
+        output.writeInt(ids[i]);
+        for (int course = 0; course < courses; course++) {
+          output.writeInt(points[i * courses + course]);
+        }
+        output.write(notified, i * notifiedBytes, notifiedBytes);
+        writeString(output, names[i]);
+        writeString(output, lastnames[i]);
+        writeString(output, emails[i]);
+      }
+      output.flush();
+      channel.force(true);
+    }
+    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  //файл отображается в память и читается без промежуточного копирования;
+  //возвращает заголовок снимка, студенты передаются в consumer.
+  //Снимок с другим числом курсов не загружается: баллы попали бы не на те курсы
+  public static Snapshot load(Path file, int courses, Consumer<Student> students)
+      throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      MappedByteBuffer input = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      if (input.getInt() != MAGIC || input.getInt() != VERSION) {
+        throw new IOException("Unsupported snapshot format: " + file);
+      }
+      Snapshot snapshot = new Snapshot(input.getLong(), input.getInt(), input.getInt(),
+          input.getInt());
+      if (snapshot.courses != courses) {
+        throw new IOException("Snapshot has " + snapshot.courses + " courses instead of "
+            + courses + ": " + file);
+      }
+      snapshot.submissions = new long[snapshot.courses];
+      for (int course = 0; course < snapshot.courses; course++) {
+        snapshot.submissions[course] = input.getLong();
+      }
+      byte[] stringBuffer = new byte[MAX_STRING_LENGTH];
+      int[] studentPoints = new int[courses];
+      byte[] studentNotified = new byte[notifiedBytes(courses)];
+      for (int i = 0; i < snapshot.count; i++) {
+        int id = input.getInt();
+        for (int course = 0; course < snapshot.courses; course++) {
+          studentPoints[course] = input.getInt();
+        }
+        input.get(studentNotified);
+        Student student = new Student(id, readString(input, stringBuffer),
+            readString(input, stringBuffer), readString(input, stringBuffer));
+        for (int course = 0; course < snapshot.courses; course++) {
+          student.addPoint(course, studentPoints[course]);
+          if ((studentNotified[course / Byte.SIZE] & 1 << course % Byte.SIZE) != 0) {
+            student.setNotified(course);
+          }
+        }
+        students.accept(student);
+      }
+      return snapshot;
+    }
+  }
+
+  private static int notifiedBytes(int courses) {
+    return (courses + Byte.SIZE - 1) / Byte.SIZE;
+  }
+
+  private static void writeString(DataOutputStream output, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    if (bytes.length > MAX_STRING_LENGTH) {
+      throw new IOException("String is too long for snapshot: " + bytes.length + " bytes");
+    }
+    output.writeShort(bytes.length);
+    output.write(bytes);
+  }
+
+  private static String readString(MappedByteBuffer input, byte[] buffer) {
+    int length = Short.toUnsignedInt(input.getShort());
+    input.get(buffer, 0, length);
+    return new String(buffer, 0, length, StandardCharsets.UTF_8);
+  }
+
+  public long getJournalOffset() {
+    return journalOffset;
+  }
+
+  public int getNextId() {
+    return nextId;
+  }
+
+  public int getCount() {
+    return count;
+  }
+
+  //число сдач по курсам на момент снимка
+  public long[] getSubmissions() {
+    return submissions.clone();
+  }
+}
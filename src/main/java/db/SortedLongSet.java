@@ -0,0 +1,108 @@
+package db;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+//упорядоченное множество long в виде списка отсортированных блоков:
+//вставка и удаление - O(log n + размер блока), обход по возрастанию без упаковки в Long
+class SortedLongSet {
+
+  private static final int BLOCK_SIZE = 512;
+
+  private final List<Block> blocks = new ArrayList<>();
+  private int size;
+
+  private static class Block {
+
+    private long[] keys = new long[BLOCK_SIZE];
+    private int size;
+
+    private long last() {
+      return keys[size - 1];
+    }
+  }
+
+  SortedLongSet() {
+    blocks.add(new Block());
+  }
+
+  //первый блок, последний ключ которого не меньше key, иначе последний блок
+  private int findBlock(long key) {
+    int low = 0;
+    int high = blocks.size() - 1;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      Block block = blocks.get(middle);
+      if (block.size > 0 && block.last() < key) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  boolean add(long key) {
+    int index = findBlock(key);
+    Block block = blocks.get(index);
+    int position = Arrays.binarySearch(block.keys, 0, block.size, key);
+    if (position >= 0) {
+      return false;
+    }
+    position = -position - 1;
+    if (block.size == BLOCK_SIZE) {
+      //полный блок делится пополам
+      Block upper = new Block();
+      int half = BLOCK_SIZE / 2;
+      System.arraycopy(block.keys, half, upper.keys, 0, BLOCK_SIZE - half);
+      upper.size = BLOCK_SIZE - half;
+      block.size = half;
+      blocks.add(index + 1, upper);
+      if (position > half) {
+        block = upper;
+        position -= half;
+      }
+    }
+    System.arraycopy(block.keys, position, block.keys, position + 1, block.size - position);
+    block.keys[position] = key;
+    block.size++;
+    size++;
+    return true;
+  }
+
+  boolean remove(long key) {
+    int index = findBlock(key);
+    Block block = blocks.get(index);
+    int position = Arrays.binarySearch(block.keys, 0, block.size, key);
+    if (position < 0) {
+      return false;
+    }
+    System.arraycopy(block.keys, position + 1, block.keys, position, block.size - position - 1);
+    block.size--;
+    size--;
+    if (block.size == 0 && blocks.size() > 1) {
+      blocks.remove(index);
+    }
+    return true;
+  }
+
+  int size() {
+    return size;
+  }
+
+  //копия первых limit ключей по возрастанию
+  long[] head(int limit) {
+    long[] keys = new long[Math.min(limit, size)];
+    int copied = 0;
+    for (Block block : blocks) {
+      int count = Math.min(block.size, keys.length - copied);
+      System.arraycopy(block.keys, 0, keys, copied, count);
+      copied += count;
+      if (copied == keys.length) {
+        break;
+      }
+    }
+    return keys;
+  }
+}
@@ -0,0 +1,67 @@
+package db;
+
+//агрегаты по курсам и, если запрошены, строки рейтинга одного курса на один момент времени,
+//см. CourseStatistics.snapshot(); только для чтения
+public final class StatisticsSnapshot {
+
+  private final String[] courseNames;
+  private final long students;
+  private final long enrolledStudents;
+  //индекс курса = id - 1
+  private final long[] enrolled;
+  private final long[] points;
+  private final long[] submissions;
+  //ключи строк рейтинга курса или null, если рейтинг не копировался
+  private final long[] top;
+
+  StatisticsSnapshot(String[] courseNames, long students, long enrolledStudents, long[] enrolled,
+      long[] points, long[] submissions, long[] top) {
+    this.courseNames = courseNames;
+    this.students = students;
+    this.enrolledStudents = enrolledStudents;
+    this.enrolled = enrolled;
+    this.points = points;
+    this.submissions = submissions;
+    this.top = top;
+  }
+
+  public int getCoursesCount() {
+    return courseNames.length;
+  }
+
+  public String getCourseName(int course) {
+    return courseNames[course];
+  }
+
+  public long getEnrolled(int course) {
+    return enrolled[course];
+  }
+
+  public long getPoints(int course) {
+    return points[course];
+  }
+
+  public double getAveragePoints(int course) {
+    return students == 0 ? 0 : (double) points[course] / students;
+  }
+
+  public long getSubmissions(int course) {
+    return submissions[course];
+  }
+
+  public long getStudents() {
+    return students;
+  }
+
+  public long getEnrolledStudents() {
+    return enrolledStudents;
+  }
+
+  //строки рейтинга курса, запрошенного в CourseStatistics.snapshot(course, limit)
+  public void forEachTop(CourseLeaderboard.Row row) {
+    if (top == null) {
+      throw new IllegalStateException("Snapshot has no leaderboard rows");
+    }
+    CourseLeaderboard.forEach(top, row);
+  }
+}
@@ -0,0 +1,47 @@
+package db;
+
+import entities.Student;
+
+//студент записи StudentFile: баллы и отметки читаются и пишутся прямо в записи,
+//строки читаются из файла при первом обращении
+class StoredStudent extends Student {
+
+  private final StudentFile file;
+  private final int slot;
+  private String lastname;
+  private String email;
+
+  StoredStudent(StudentFile file, int slot) {
+    super(file.getId(slot), null, null, null, file, slot);
+    this.file = file;
+    this.slot = slot;
+  }
+
+  int getSlot() {
+    return slot;
+  }
+
+    @Override
+  public String getName() {
+    if (name == null) {
+      name = file.getName(slot);
+    }
+    return name;
+  }
+
+  @Override
+  public String getLastname() {
+    if (lastname == null) {
+      lastname = file.getLastname(slot);
+    }
+    return lastname;
+  }
+
+  @Override
+  public String getEmail() {
+    if (email == null) {
+      email = file.getEmail(slot);
+    }
+    return email;
+  }
+}
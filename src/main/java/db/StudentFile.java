@@ -0,0 +1,442 @@
+package db;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import entities.PointsListener;
+import entities.PointsTable;
+import entities.Student;
+
+//студенты в отображенном в память файле записей фиксированной длины, строки - в <file>.strings.
+//Заголовок: magic, версия, число курсов, число записей, конец области строк;
+//запись: смещения имени, фамилии и email в области строк, id, баллы по курсам,
+//число сдач по курсам, биты уведомлений (long на 64 курса).
+//Слот записи = id - 1, баллы и сдачи пишутся прямо в запись.
+//Объекты Student для записей создаются при обращении, последние из них переиспользуются.
+//Индексов по записям файл не хранит, см. TempStudentStorage.openStore
+public class StudentFile implements PointsTable, Closeable {
+
+  private static final int MAGIC = 0x4C505446;
+  private static final int VERSION = 2;
+  private static final int HEADER_SIZE = 64;
+  private static final int COURSES_POSITION = 8;
+  private static final int COUNT_POSITION = 12;
+  private static final int STRINGS_END_POSITION = 16;
+  private static final int NAME = 0;
+  private static final int LASTNAME = Long.BYTES;
+  private static final int EMAIL = 2 * Long.BYTES;
+  private static final int ID = 3 * Long.BYTES;
+  private static final int POINTS = ID + Integer.BYTES;
+  //файл отображается кусками по SEGMENT_SIZE байт по мере роста
+  private static final int SEGMENT_SIZE = 1 << 24;
+  private static final int MAX_STRING_LENGTH = 0xFFFF;
+  private static final int LOCK_STRIPES = 64;
+  //размеры кэшей объектов Student и смещений повторяющихся строк
+  private static final int STUDENT_CACHE_SIZE = 1 << 12;
+  private static final int INTERN_CACHE_SIZE = 1 << 12;
+  private static final VarHandle NOTIFIED = MethodHandles.byteBufferViewVarHandle(long[].class,
+      ByteOrder.LITTLE_ENDIAN);
+
+  private final FileChannel records;
+  private final FileChannel strings;
+  private final MappedByteBuffer header;
+  private final int courses;
+  private final int submissionsPosition;
+  private final int notifiedPosition;
+  private final int recordSize;
+  private final int recordsPerSegment;
+  private final Object[] locks = new Object[LOCK_STRIPES];
+  private final Object mapping = new Object();
+  private volatile Segment[] recordSegments = new Segment[0];
+  private volatile MappedByteBuffer[] stringSegments = new MappedByteBuffer[0];
+  //имена и фамилии повторяются: недавно записанные ищутся в кэше с прямым отображением
+  //по хешу строки и записываются повторно, только если вытеснены из него
+  private final String[] internedValues = new String[INTERN_CACHE_SIZE];
+  private final long[] internedOffsets = new long[INTERN_CACHE_SIZE];
+  //объект Student слота slot лежит в ячейке slot % STUDENT_CACHE_SIZE
+  private final AtomicReferenceArray<StoredStudent> students =
+      new AtomicReferenceArray<>(STUDENT_CACHE_SIZE);
+  private volatile int size;
+  private long stringsEnd;
+  //строки до этого смещения и заголовок без отметки isHeaderDirty уже сброшены на диск
+  private long forcedStringsEnd;
+  private boolean isHeaderDirty;
+  private final Object forcing = new Object();
+  private PointsListener pointsListener;
+
+  //кусок файла записей; isDirty - в нем есть изменения, еще не сброшенные на диск
+  private static class Segment {
+
+    private final MappedByteBuffer buffer;
+    private final AtomicBoolean isDirty = new AtomicBoolean();
+
+    private Segment(MappedByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+  }
+
+  private StudentFile(FileChannel records, FileChannel strings, int courses, Path file)
+      throws IOException {
+    this.records = records;
+    this.strings = strings;
+    this.courses = courses;
+    for (int stripe = 0; stripe < LOCK_STRIPES; stripe++) {
+      locks[stripe] = new Object();
+    }
+    submissionsPosition = POINTS + courses * Integer.BYTES;
+    notifiedPosition = (submissionsPosition + courses * Integer.BYTES + Long.BYTES - 1)
+        & -Long.BYTES;
+    recordSize = notifiedPosition + (courses + Long.SIZE - 1) / Long.SIZE * Long.BYTES;
+    recordsPerSegment = Math.max(1, SEGMENT_SIZE / recordSize);
+    boolean isNew = records.size() == 0;
+    header = records.map(MapMode.READ_WRITE, 0, HEADER_SIZE);
+    header.order(ByteOrder.LITTLE_ENDIAN);
+    if (isNew) {
+      header.putInt(0, MAGIC);
+      header.putInt(Integer.BYTES, VERSION);
+      header.putInt(COURSES_POSITION, courses);
+    } else if (header.getInt(0) != MAGIC || header.getInt(Integer.BYTES) != VERSION) {
+      throw new IOException("Unsupported student file format: " + file);
+    } else if (header.getInt(COURSES_POSITION) != courses) {
+      throw new IOException("Student file has " + header.getInt(COURSES_POSITION)
+          + " courses instead of " + courses + ": " + file);
+    }
+    size = header.getInt(COUNT_POSITION);
+    stringsEnd = header.getLong(STRINGS_END_POSITION);
+    forcedStringsEnd = stringsEnd;
+    //после открытия строки последних записей снова переиспользуются
+    for (int slot = Math.max(0, size - INTERN_CACHE_SIZE); slot < size; slot++) {
+      int position = recordPosition(slot);
+      for (int field = NAME; field <= LASTNAME; field += Long.BYTES) {
+        long offset = recordSegment(slot).getLong(position + field);
+        String value = readString(offset);
+        int index = internIndex(value);
+        internedValues[index] = value;
+        internedOffsets[index] = offset;
+      }
+    }
+  }
+
+  public static StudentFile open(Path file, int courses) throws IOException {
+    FileChannel records = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.READ, StandardOpenOption.WRITE);
+    FileChannel strings = null;
+    try {
+      strings = FileChannel.open(file.resolveSibling(file.getFileName() + ".strings"),
+          StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      return new StudentFile(records, strings, courses, file);
+    } catch (IOException | RuntimeException e) {
+      records.close();
+      if (strings != null) {
+        strings.close();
+      }
+      throw e;
+    }
+  }
+
+  //слушатель, который получают объекты Student, созданные для записей файла
+  public void setPointsListener(PointsListener pointsListener) {
+    this.pointsListener = pointsListener;
+    for (int index = 0; index < STUDENT_CACHE_SIZE; index++) {
+      students.set(index, null);
+    }
+  }
+
+  public int append(Student student) {
+    return append(student, stored -> { });
+  }
+
+  //добавляет запись с id = слот + 1: баллы и отметки студента переносятся в нее, и дальше
+  //студент работает с записью. Запись становится видна только после заполнения и вызова
+  //beforePublish, в котором студента можно учесть в индексах до того, как его увидят другие
+  public synchronized int append(Student student, Consumer<Student> beforePublish) {
+    int slot = size;
+    if (slot == Integer.MAX_VALUE) {
+      throw new IllegalStateException("Student file is full");
+    }
+    MappedByteBuffer segment = recordSegment(slot);
+    int position = recordPosition(slot);
+    segment.putLong(position + NAME, intern(student.getName()));
+    segment.putLong(position + LASTNAME, intern(student.getLastname()));
+    segment.putLong(position + EMAIL, writeString(student.getEmail()));
+    segment.putInt(position + ID, slot + 1);
+    //после сбоя за последней записью может остаться недописанная
+    for (int offset = POINTS; offset < recordSize; offset += Integer.BYTES) {
+      segment.putInt(position + offset, 0);
+    }
+    student.setId(slot + 1);
+    student.moveTo(this, slot);
+    markDirty(slot);
+    beforePublish.accept(student);
+    header.putLong(STRINGS_END_POSITION, stringsEnd);
+    header.putInt(COUNT_POSITION, slot + 1);
+    isHeaderDirty = true;
+    size = slot + 1;
+    return slot;
+  }
+
+  private long intern(String value) {
+    int index = internIndex(value);
+    if (!value.equals(internedValues[index])) {
+      internedValues[index] = value;
+      internedOffsets[index] = writeString(value);
+    }
+    return internedOffsets[index];
+  }
+
+  private static int internIndex(String value) {
+    int hash = value.hashCode();
+    return (hash ^ hash >>> 16) & INTERN_CACHE_SIZE - 1;
+  }
+
+  //строка: short длина + UTF-8; строка не пересекает границу куска файла
+  private long writeString(String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    if (bytes.length > MAX_STRING_LENGTH) {
+      throw new IllegalArgumentException(
+          "String is too long for student file: " + bytes.length + " bytes");
+    }
+    long offset = stringsEnd;
+    if (offset % SEGMENT_SIZE + Short.BYTES + bytes.length > SEGMENT_SIZE) {
+      offset = (offset / SEGMENT_SIZE + 1) * SEGMENT_SIZE;
+    }
+    MappedByteBuffer segment = stringSegment(offset);
+    int position = (int) (offset % SEGMENT_SIZE);
+    segment.putShort(position, (short) bytes.length);
+    segment.put(position + Short.BYTES, bytes);
+    stringsEnd = offset + Short.BYTES + bytes.length;
+    return offset;
+  }
+
+  private String readString(long offset) {
+    MappedByteBuffer segment = stringSegment(offset);
+    int position = (int) (offset % SEGMENT_SIZE);
+    byte[] bytes = new byte[Short.toUnsignedInt(segment.getShort(position))];
+    segment.get(position + Short.BYTES, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private int recordPosition(int slot) {
+    return slot % recordsPerSegment * recordSize;
+  }
+
+  private MappedByteBuffer recordSegment(int slot) {
+    return segment(slot).buffer;
+  }
+
+  private Segment segment(int slot) {
+    int index = slot / recordsPerSegment;
+    Segment[] segments = recordSegments;
+    if (index < segments.length && segments[index] != null) {
+      return segments[index];
+    }
+    synchronized (mapping) {
+      segments = recordSegments;
+      if (index < segments.length && segments[index] != null) {
+        return segments[index];
+      }
+      segments = Arrays.copyOf(segments, Math.max(index + 1, segments.length));
+      segments[index] = new Segment(map(records,
+          HEADER_SIZE + (long) index * recordsPerSegment * recordSize,
+          (long) recordsPerSegment * recordSize));
+      recordSegments = segments;
+      return segments[index];
+    }
+  }
+
+  //вызывается после записи в слот: кусок будет сброшен ближайшим force(). Барьер не дает
+  //прочитать отметку раньше, чем запись станет видна force(), который снимает ее getAndSet
+  private void markDirty(int slot) {
+    AtomicBoolean isDirty = segment(slot).isDirty;
+    VarHandle.fullFence();
+    if (!isDirty.get()) {
+      isDirty.set(true);
+    }
+  }
+
+  private MappedByteBuffer stringSegment(long offset) {
+    int index = (int) (offset / SEGMENT_SIZE);
+    MappedByteBuffer[] segments = stringSegments;
+    if (index < segments.length && segments[index] != null) {
+      return segments[index];
+    }
+    synchronized (mapping) {
+      segments = stringSegments;
+      if (index < segments.length && segments[index] != null) {
+        return segments[index];
+      }
+      segments = Arrays.copyOf(segments, Math.max(index + 1, segments.length));
+      segments[index] = map(strings, (long) index * SEGMENT_SIZE, SEGMENT_SIZE);
+      stringSegments = segments;
+      return segments[index];
+    }
+  }
+
+  //файл при отображении удлиняется
+  private static MappedByteBuffer map(FileChannel channel, long position, long length) {
+    MappedByteBuffer mapped;
+    try {
+      mapped = channel.map(MapMode.READ_WRITE, position, length);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    mapped.order(ByteOrder.LITTLE_ENDIAN);
+    return mapped;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public int getId(int slot) {
+    return recordSegment(slot).getInt(recordPosition(slot) + ID);
+  }
+
+  public String getName(int slot) {
+    return readString(recordSegment(slot).getLong(recordPosition(slot) + NAME));
+  }
+
+  public String getLastname(int slot) {
+    return readString(recordSegment(slot).getLong(recordPosition(slot) + LASTNAME));
+  }
+
+  public String getEmail(int slot) {
+    return readString(recordSegment(slot).getLong(recordPosition(slot) + EMAIL));
+  }
+
+  //объект для записи слота, новый, если его нет в кэше; строки читаются при первом обращении
+  public Student getStudent(int slot) {
+    Objects.checkIndex(slot, size);
+    int index = slot & STUDENT_CACHE_SIZE - 1;
+    StoredStudent student = students.get(index);
+    if (student == null || student.getSlot() != slot) {
+      student = new StoredStudent(this, slot);
+      student.setPointsListener(pointsListener);
+      students.set(index, student);
+    }
+    return student;
+  }
+
+  //записи файла по порядку слотов
+  public List<Student> getStudents() {
+    return new Students();
+  }
+
+  private class Students extends AbstractList<Student> implements RandomAccess {
+
+    @Override
+    public Student get(int index) {
+      return getStudent(index);
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+
+  @Override
+  public int getPoint(int slot, int course) {
+    return recordSegment(slot).getInt(recordPosition(slot) + POINTS + course * Integer.BYTES);
+  }
+
+  @Override
+  public void setPoint(int slot, int course, int point) {
+    recordSegment(slot).putInt(recordPosition(slot) + POINTS + course * Integer.BYTES, point);
+    markDirty(slot);
+  }
+
+  public int getSubmissions(int slot, int course) {
+    return recordSegment(slot).getInt(recordPosition(slot) + submissionsPosition
+        + course * Integer.BYTES);
+  }
+
+  //вызывается под блокировкой слота, см. getLock
+  public void addSubmission(int slot, int course) {
+    recordSegment(slot).putInt(recordPosition(slot) + submissionsPosition
+        + course * Integer.BYTES, getSubmissions(slot, course) + 1);
+    markDirty(slot);
+  }
+
+  @Override
+  public boolean isNotified(int slot, int course) {
+    long word = (long) NOTIFIED.getVolatile(recordSegment(slot), notifiedIndex(slot, course));
+    return (word & 1L << course) != 0;
+  }
+
+  @Override
+  public void setNotified(int slot, int course) {
+    NOTIFIED.getAndBitwiseOr(recordSegment(slot), notifiedIndex(slot, course), 1L << course);
+    markDirty(slot);
+  }
+
+  private int notifiedIndex(int slot, int course) {
+    return recordPosition(slot) + notifiedPosition + (course >>> 6) * Long.BYTES;
+  }
+
+  @Override
+  public Object getLock(int slot) {
+    return locks[slot & LOCK_STRIPES - 1];
+  }
+
+  @Override
+  public int getCourses() {
+    return courses;
+  }
+
+  //сбрасывает на диск измененные после прошлого вызова куски записей, дописанные строки и
+  //заголовок. Вызовы выполняются по очереди, поэтому каждый возвращается, когда все изменения,
+  //сделанные до него, сохранены; добавление записей на это время не останавливается
+  public void force() {
+    synchronized (forcing) {
+      for (Segment segment : recordSegments) {
+        if (segment != null && segment.isDirty.getAndSet(false)) {
+          segment.buffer.force();
+        }
+      }
+      long end;
+      boolean isHeaderChanged;
+      synchronized (this) {
+        end = stringsEnd;
+        isHeaderChanged = isHeaderDirty;
+        isHeaderDirty = false;
+      }
+      for (long offset = forcedStringsEnd; offset < end;
+          offset = (offset / SEGMENT_SIZE + 1) * SEGMENT_SIZE) {
+        int position = (int) (offset % SEGMENT_SIZE);
+        int length = (int) Math.min(SEGMENT_SIZE - position, end - offset);
+        stringSegment(offset).force(position, length);
+      }
+      forcedStringsEnd = end;
+      if (isHeaderChanged) {
+        header.force();
+      }
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    force();
+    synchronized (this) {
+      records.close();
+      strings.close();
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package db;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import entities.Student;
+
+//список студентов только для добавления, без блокировок: элементы лежат в корзинах
+//удваивающегося размера, которые никогда не копируются. Добавление резервирует индекс,
+//записывает элемент и сдвигает границу видимой части; читатели видят префикс [0, size())
+class StudentList extends AbstractList<Student> implements RandomAccess {
+
+  private static final int FIRST_BUCKET_BITS = 5;
+  private static final int BUCKETS = Integer.SIZE - FIRST_BUCKET_BITS;
+
+  private final AtomicReferenceArray<AtomicReferenceArray<Student>> buckets =
+      new AtomicReferenceArray<>(BUCKETS);
+  //следующий свободный индекс
+  private final AtomicInteger reserved = new AtomicInteger();
+  //все элементы с индексом меньше published записаны
+  private final AtomicInteger published = new AtomicInteger();
+
+  @Override
+  public boolean add(Student student) {
+    int index = reserved.getAndIncrement();
+    if (index < 0) {
+      throw new IllegalStateException("Student list is full");
+    }
+    int position = index + (1 << FIRST_BUCKET_BITS);
+    int high = Integer.SIZE - 1 - Integer.numberOfLeadingZeros(position);
+    bucket(high - FIRST_BUCKET_BITS).set(position ^ 1 << high, student);
+    publish();
+    return true;
+  }
+
+  private AtomicReferenceArray<Student> bucket(int bucket) {
+    AtomicReferenceArray<Student> elements = buckets.get(bucket);
+    if (elements == null) {
+      buckets.compareAndSet(bucket, null,
+          new AtomicReferenceArray<>(1 << bucket + FIRST_BUCKET_BITS));
+      elements = buckets.get(bucket);
+    }
+    return elements;
+  }
+
+  //сдвигает границу через все записанные элементы, в том числе добавленные другими потоками
+  private void publish() {
+    int bound;
+    while ((bound = published.get()) < reserved.get() && element(bound) != null) {
+      published.compareAndSet(bound, bound + 1);
+    }
+  }
+
+  private Student element(int index) {
+    int position = index + (1 << FIRST_BUCKET_BITS);
+    int high = Integer.SIZE - 1 - Integer.numberOfLeadingZeros(position);
+    AtomicReferenceArray<Student> elements = buckets.get(high - FIRST_BUCKET_BITS);
+    return elements == null ? null : elements.get(position ^ 1 << high);
+  }
+
+  @Override
+  public Student get(int index) {
+    if (index < 0 || index >= published.get()) {
+      throw new IndexOutOfBoundsException(index);
+    }
+    return element(index);
+  }
+
+  @Override
+  public int size() {
+    return published.get();
+  }
+}
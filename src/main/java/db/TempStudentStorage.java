@@ -1,23 +1,152 @@
 package db;
 
-import java.util.ArrayList;
-import java.util.Collection;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import entities.CoursePoints;
+import entities.PointsListener;
 import entities.Student;
 
+//хранилище для одновременной работы нескольких потоков: регистрация не берет блокировок,
+//email занимается атомарно, баллы студента меняются под блокировкой его полосы.
+//setStudents и открытие журнала предполагают, что другие потоки хранилище в этот момент не меняют;
+//снимок останавливает регистрации и начисления на время копирования состояния.
+//Вместо журнала студенты могут храниться в файле записей, см. openStore
 public class TempStudentStorage {
 
-  private static List<Student> students = new ArrayList<>();
+  private static List<Student> students = new StudentList();
   private static AtomicInteger studentsId = new AtomicInteger(1);
+  //регистрации идут одновременно под блокировкой чтения, снимок берет блокировку записи
+  private static final ReadWriteLock registration = new ReentrantReadWriteLock();
+  //индексы для поиска за O(1): по id и по email в нижнем регистре
+  private static Map<Integer, Student> studentsById = new ConcurrentHashMap<>();
+  private static Map<String, Integer> studentsByEmail = new ConcurrentHashMap<>();
+  //занимает email, пока регистрация студента не завершена
+  private static final Integer RESERVED_ID = 0;
+  //баллы всех студентов хранилища по столбцам курсов, строка студента - его слот
+  private static CoursePoints coursePoints = newCoursePoints();
+  private static CourseLeaderboard leaderboard = new CourseLeaderboard(Student.getCoursesCount());
+  //рейтинг обновляется статистикой, чтобы снимок статистики и строки рейтинга совпадали
+  private static CourseStatistics statistics = new CourseStatistics(leaderboard);
+  private static NotificationQueue notifications = new NotificationQueue(
+      Student.getCoursesCount());
+  private static Journal journal;
+  //файл записей студентов; если открыт, студенты хранятся в нем, а не в памяти
+  private static StudentFile studentFile;
+  private static Path snapshotFile;
+  private static CompletableFuture<Void> pendingSnapshot = CompletableFuture.completedFuture(null);
+  private static final Executor SNAPSHOT_WRITER = Executors.newSingleThreadExecutor(task -> {
+    Thread thread = new Thread(task, "snapshot-writer");
+    thread.setDaemon(true);
+    return thread;
+  });
+  //получает изменения баллов всех студентов хранилища и раздает их агрегатам и журналу
+  private static final PointsListener STORAGE_LISTENER = new PointsListener() {
+    @Override
+    public void onPointsAdded(Student student, int course, int addedPoints, int oldPoints) {
+      statistics.onPointsAdded(student, course, addedPoints, oldPoints);
+      notifications.onPointsAdded(student, course, addedPoints, oldPoints);
+      if (journal != null) {
+        journal.appendPoints(student.getId(), course + 1, addedPoints);
+      }
+      if (studentFile != null && addedPoints > 0) {
+        studentFile.addSubmission(student.getId() - 1, course);
+      }
+    }
 
-  public static void addStudent(Student student) {
-    student.setId(studentsId.getAndIncrement());
+    @Override
+    public void onPointsAdded(Student student, int[] addedPoints, int[] oldPoints) {
+      statistics.onPointsAdded(student, addedPoints, oldPoints);
+      notifications.onPointsAdded(student, addedPoints, oldPoints);
+      if (journal != null) {
+        for (int course = 0; course < addedPoints.length; course++) {
+          if (addedPoints[course] > 0) {
+            journal.appendPoints(student.getId(), course + 1, addedPoints[course]);
+          }
+        }
+      }
+      if (studentFile != null) {
+        for (int course = 0; course < addedPoints.length; course++) {
+          if (addedPoints[course] > 0) {
+            studentFile.addSubmission(student.getId() - 1, course);
+          }
+        }
+      }
+    }
+
+    @Override
+    public void onNotified(Student student, int course) {
+      if (journal != null) {
+        journal.appendNotified(student.getId(), course + 1);
+      }
+    }
+  };
+
+  //если email уже занят, студент не добавляется и возвращается false.
+  //Студент становится виден в индексах и списке только после полной регистрации
+  public static boolean addStudent(Student student) {
+    if (studentsByEmail.putIfAbsent(normalizeEmail(student.getEmail()), RESERVED_ID) != null) {
+      return false;
+    }
+    if (studentFile != null) {
+      storeStudent(student);
+      return true;
+    }
+    registration.readLock().lock();
+    try {
+      student.setId(studentsId.getAndIncrement());
+      //запись о регистрации попадает в журнал раньше записей о баллах студента
+      if (journal != null) {
+        journal.appendRegister(student.getId(), student.getName(), student.getLastname(),
+            student.getEmail());
+      }
+      putStudent(student, true);
+    } finally {
+      registration.readLock().unlock();
+    }
+    return true;
+  }
+
+  //студент учитывается в статистике до того, как станет виден другим потокам, иначе его баллы,
+  //начисленные в промежутке, были бы посчитаны дважды. При массовой загрузке isCounted = false:
+  //статистика считается одним проходом, см. addStudents
+  private static void putStudent(Student student, boolean isCounted) {
+    student.moveTo(coursePoints, coursePoints.allocate());
+    if (isCounted) {
+      statistics.addStudent(student);
+    } else {
+      leaderboard.addStudent(student);
+    }
+    notifications.addStudent(student);
+    student.setPointsListener(STORAGE_LISTENER);
+    studentsById.put(student.getId(), student);
     students.add(student);
+    studentsByEmail.put(normalizeEmail(student.getEmail()), student.getId());
+  }
+
+  //id студента определяет слот записи в файле; индекс по id не нужен.
+  //Агрегаты обновляются до того, как запись станет видна через getStudentById
+  private static void storeStudent(Student student) {
+    studentFile.append(student, stored -> {
+      statistics.addStudent(stored);
+      notifications.addStudent(stored);
+      stored.setPointsListener(STORAGE_LISTENER);
+    });
+    studentsByEmail.put(normalizeEmail(student.getEmail()), student.getId());
   }
 
   public static List<Student> getStudents() {
@@ -25,11 +154,217 @@ public class TempStudentStorage {
   }
 
   public static void setStudents(List<Student> newStudents) {
-    students = newStudents;
+    if (studentFile != null) {
+      throw new IllegalStateException("Students are stored in a file, close it first");
+    }
+    students.forEach(student -> student.setPointsListener(null));
+    students = new StudentList();
+    studentsById = new ConcurrentHashMap<>();
+    studentsByEmail = new ConcurrentHashMap<>();
+    coursePoints = newCoursePoints();
+    leaderboard = new CourseLeaderboard(Student.getCoursesCount());
+    statistics = new CourseStatistics(leaderboard);
+    notifications = new NotificationQueue(Student.getCoursesCount());
+    newStudents.forEach(student -> putStudent(student, false));
+    statistics.addStudents(students);
+  }
+
+  //восстанавливает хранилище из журнала и дальше записывает в него все изменения;
+  //возвращает количество прочитанных записей
+  public static long openJournal(Path file) throws IOException {
+    return openJournal(file, null);
+  }
+
+  //если снимок существует, хранилище загружается из него, а из журнала читается только хвост,
+  //записанный после снимка
+  public static long openJournal(Path file, Path snapshot) throws IOException {
+    if (studentFile != null) {
+      throw new IllegalStateException("Students are already stored in a file");
+    }
+    int courses = Student.getCoursesCount();
+    //журнал и снимок с другим числом курсов не читаются, см. Journal.open и Snapshot.load
+    Journal opened = Journal.open(file, courses);
+    long records;
+    try {
+      long journalOffset = 0;
+      if (snapshot != null && Files.exists(snapshot)) {
+        int loadedFrom = students.size();
+        Snapshot loaded = Snapshot.load(snapshot, courses,
+            student -> restoreStudent(student, false));
+        statistics.addStudents(students.subList(loadedFrom, students.size()));
+        statistics.addSubmissions(loaded.getSubmissions());
+        journalOffset = loaded.getJournalOffset();
+        if (studentsId.get() < loaded.getNextId()) {
+          studentsId.set(loaded.getNextId());
+        }
+      }
+      records = opened.replay(journalOffset, new Journal.Handler() {
+        @Override
+        public void onRegister(int id, String name, String lastname, String email) {
+          Student student = new Student(id, name, lastname, email);
+          restoreStudent(student, true);
+        }
+
+        @Override
+        public void onPointsAdded(int id, int subjectId, int addedPoints) {
+          studentsById.get(id).addPoint(subjectId - 1, addedPoints);
+        }
+
+        @Override
+        public void onNotified(int id, int subjectId) {
+          studentsById.get(id).setNotified(subjectId - 1);
+        }
+      });
+    } catch (IOException | RuntimeException e) {
+      opened.close();
+      throw e;
+    }
+    snapshotFile = snapshot;
+    journal = opened;
+    return records;
+  }
+
+  private static void restoreStudent(Student student, boolean isCounted) {
+    putStudent(student, isCounted);
+    if (studentsId.get() <= student.getId()) {
+      studentsId.set(student.getId() + 1);
+    }
+  }
+
+  //студенты хранятся в файле записей file: записи читаются из файла при обращении, а баллы
+  //и сдачи пишутся прямо в них. Индекс email, рейтинги, очередь уведомлений и агрегаты
+  //остаются в памяти и строятся при открытии проходом по всем записям, поэтому время открытия
+  //и память растут с числом студентов.
+  //Хранилище при этом должно быть пустым, журнал в этом режиме не ведется
+  public static void openStore(Path file) throws IOException {
+    if (journal != null || studentFile != null) {
+      throw new IllegalStateException("Storage is already persistent");
+    }
+    StudentFile opened = StudentFile.open(file, Student.getCoursesCount());
+    opened.setPointsListener(STORAGE_LISTENER);
+    setStudents(List.of());
+    studentFile = opened;
+    students = opened.getStudents();
+    long[] submissions = new long[Student.getCoursesCount()];
+    for (Student student : students) {
+      studentsByEmail.put(normalizeEmail(student.getEmail()), student.getId());
+      leaderboard.addStudent(student);
+      notifications.addStudent(student);
+      for (int course = 0; course < submissions.length; course++) {
+        submissions[course] += opened.getSubmissions(student.getId() - 1, course);
+      }
+    }
+    statistics.addStudents(students);
+    statistics.addSubmissions(submissions);
+    studentsId.set(students.size() + 1);
+  }
+
+  //сохраняет файл записей и возвращает хранилище в память пустым
+  public static void closeStore() throws IOException {
+    if (studentFile == null) {
+      return;
+    }
+    StudentFile closed = studentFile;
+    studentFile = null;
+    closed.close();
+    setStudents(List.of());
+  }
+
+  //записи журнала или файла студентов, сделанные до вызова, гарантированно сохраняются на диск
+  public static void syncJournal() {
+    if (studentFile != null) {
+      studentFile.force();
+    }
+    if (journal == null) {
+      return;
+    }
+    try {
+      journal.sync();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  //состояние копируется сразу, а файл пишется в фоновом потоке;
+  //возвращает null, если снимки не настроены.
+  //Смещение в журнале и состояние берутся, пока ни регистрации, ни начисления не идут
+  //(начисление меняет баллы и пишет журнал под монитором слота, см. Student.addPoint),
+  //поэтому каждая запись журнала либо уже учтена в снимке, либо лежит после смещения
+  public static CompletableFuture<Void> takeSnapshot() {
+    if (snapshotFile == null || journal == null) {
+      return null;
+    }
+    syncJournal();
+    Snapshot snapshot;
+    registration.writeLock().lock();
+    try {
+      snapshot = CoursePoints.callExclusively(() -> Snapshot.capture(students, statistics,
+          studentsId.get(), journal.size()));
+    } finally {
+      registration.writeLock().unlock();
+    }
+    Path file = snapshotFile;
+    pendingSnapshot = pendingSnapshot.thenRunAsync(() -> {
+      try {
+        snapshot.write(file);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }, SNAPSHOT_WRITER);
+    return pendingSnapshot;
+  }
+
+  public static void closeJournal() throws IOException {
+    try {
+      pendingSnapshot.join();
+    } catch (CompletionException e) {
+      throw new IOException("Snapshot was not written", e.getCause());
+    } finally {
+      pendingSnapshot = CompletableFuture.completedFuture(null);
+      snapshotFile = null;
+    }
+    if (journal != null) {
+      journal.close();
+      journal = null;
+    }
+  }
+
+  public static CourseStatistics getStatistics() {
+    return statistics;
+  }
+
+  public static CourseLeaderboard getLeaderboard() {
+    return leaderboard;
+  }
+
+  public static NotificationQueue getNotifications() {
+    return notifications;
   }
 
   public static Optional<Student> getStudentById(int id) {
-    return students.stream().filter(student -> student.getId() == id).findFirst();
+    StudentFile file = studentFile;
+    if (file != null) {
+      return id >= 1 && id <= file.size() ? Optional.of(file.getStudent(id - 1))
+          : Optional.empty();
+    }
+    return Optional.ofNullable(studentsById.get(id));
+  }
+
+  public static Optional<Student> getStudentByEmail(String email) {
+    Integer id = studentsByEmail.get(normalizeEmail(email));
+    return id == null || id.equals(RESERVED_ID) ? Optional.empty() : getStudentById(id);
+  }
+
+  public static boolean isRegisteredEmail(String email) {
+    return studentsByEmail.containsKey(normalizeEmail(email));
+  }
+
+  private static CoursePoints newCoursePoints() {
+    return new CoursePoints(Student.getCoursesCount(), 1 << 10);
+  }
+
+  private static String normalizeEmail(String email) {
+    return email.trim().toLowerCase(Locale.ROOT);
   }
 
 }
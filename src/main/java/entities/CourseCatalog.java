@@ -0,0 +1,115 @@
+package entities;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import enums.Course;
+import enums.NameTable;
+
+//общий список курсов: описания хранятся здесь по одному разу, у студента остаются только
+//баллы и отметки в CoursePoints. Индекс курса = id - 1
+public final class CourseCatalog {
+
+  //каталог меняется до заполнения хранилища: таблицы хранилища создаются под число его курсов
+  private static volatile CourseCatalog current = defaults();
+
+  private final CourseDefinition[] courses;
+  private final NameTable<CourseDefinition> names;
+
+  private CourseCatalog(CourseDefinition[] courses) {
+    this.courses = courses;
+    names = new NameTable<>(courses, CourseDefinition::getName);
+  }
+
+  public static CourseCatalog getCurrent() {
+    return current;
+  }
+
+  public static void setCurrent(CourseCatalog catalog) {
+    current = catalog;
+  }
+
+  //встроенные курсы Java, DSA, Databases и Spring
+  public static CourseCatalog defaults() {
+    List<CourseDefinition> courses = new ArrayList<>();
+    for (Course course : Course.values()) {
+      if (course != Course.UNKNOWN) {
+        courses.add(new CourseDefinition(course.getId(), course.getName(), course.getLabel(),
+            course.getMaxPoints()));
+      }
+    }
+    return of(courses);
+  }
+
+  //курсы по порядку id: id курса должен быть равен его позиции в списке + 1
+  public static CourseCatalog of(List<CourseDefinition> courses) {
+    return new CourseCatalog(courses.toArray(CourseDefinition[]::new));
+  }
+
+  //файл определений: строка "<название> <максимум баллов>" на курс в порядке id;
+  //пустые строки и строки, начинающиеся с #, пропускаются
+  public static CourseCatalog load(Path file) throws IOException {
+    List<CourseDefinition> courses = new ArrayList<>();
+    Set<String> names = new HashSet<>();
+    List<String> lines = Files.readAllLines(file);
+    for (int i = 0; i < lines.size(); i++) {
+      String line = lines.get(i).trim();
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      int separator = line.lastIndexOf(' ');
+      String name = separator < 0 ? "" : line.substring(0, separator).trim();
+      int maxPoints = separator < 0 ? 0 : parseMaxPoints(line.substring(separator + 1));
+      if (name.isEmpty() || maxPoints <= 0 || !names.add(name.toLowerCase(Locale.ROOT))) {
+        throw new IOException("Invalid course definition at line " + (i + 1) + ": " + file);
+      }
+      courses.add(new CourseDefinition(courses.size() + 1, name, maxPoints));
+    }
+    if (courses.isEmpty()) {
+      throw new IOException("No courses are defined: " + file);
+    }
+    return of(courses);
+  }
+
+  private static int parseMaxPoints(String text) {
+    try {
+      return Integer.parseInt(text);
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  public int size() {
+    return courses.length;
+  }
+
+  public CourseDefinition get(int course) {
+    return courses[course];
+  }
+
+  //курс по названию без учета регистра и пробелов по краям или null
+  public CourseDefinition find(CharSequence name) {
+    int from = 0;
+    int to = name.length();
+    while (from < to && name.charAt(from) <= ' ') {
+      from++;
+    }
+    while (to > from && name.charAt(to - 1) <= ' ') {
+      to--;
+    }
+    return names.get(name, from, to);
+  }
+
+  public String[] getNames() {
+    String[] result = new String[courses.length];
+    for (int course = 0; course < courses.length; course++) {
+      result[course] = courses[course].getName();
+    }
+    return result;
+  }
+}
@@ -0,0 +1,43 @@
+package entities;
+
+//неизменяемое описание курса, одно на все приложение: id, название и максимум баллов
+public final class CourseDefinition {
+
+  private final int id;
+  private final String name;
+  //название в выводе баллов студента; у курсов из файла совпадает с name
+  private final String label;
+  private final int maxPoints;
+
+  public CourseDefinition(int id, String name, int maxPoints) {
+    this(id, name, name, maxPoints);
+  }
+
+  public CourseDefinition(int id, String name, String label, int maxPoints) {
+    this.id = id;
+    this.name = name;
+    this.label = label;
+    this.maxPoints = maxPoints;
+  }
+
+  public int getId() {
+    return id;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public String getLabel() {
+    return label;
+  }
+
+  public int getMaxPoints() {
+    return maxPoints;
+  }
+
+  @Override
+  public String toString() {
+    return name + " (" + maxPoints + ")";
+  }
+}
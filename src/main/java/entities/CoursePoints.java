@@ -0,0 +1,134 @@
+package entities;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+//баллы студентов по курсам в виде структуры массивов: в каждой странице int[] на курс,
+//индекс - слот студента в странице, и битсет уведомлений страницы (бит slot * courses + course).
+//Страницы удваивающегося размера создаются по мере роста и никогда не копируются, поэтому
+//слоты выделяются без блокировок, а записи в уже выделенные слоты не теряются
+public class CoursePoints implements PointsTable {
+
+  private static final int FIRST_PAGE_BITS = 5;
+  private static final int PAGES = Integer.SIZE - FIRST_PAGE_BITS;
+  //баллы студента меняются под блокировкой его полосы, см. getLock()
+  private static final int LOCK_STRIPES = 64;
+  private static final Object[] LOCKS = new Object[LOCK_STRIPES];
+  private static final VarHandle NOTIFIED = MethodHandles.arrayElementVarHandle(long[].class);
+
+  static {
+    for (int stripe = 0; stripe < LOCK_STRIPES; stripe++) {
+      LOCKS[stripe] = new Object();
+    }
+  }
+
+  private final int courses;
+  private final AtomicReferenceArray<Page> pages = new AtomicReferenceArray<>(PAGES);
+  private final AtomicInteger size = new AtomicInteger();
+
+  private static class Page {
+
+    private final int[][] points;
+    private final long[] notified;
+
+    private Page(int courses, int capacity) {
+      points = new int[courses][capacity];
+      notified = new long[(capacity * courses + Long.SIZE - 1) / Long.SIZE];
+    }
+  }
+
+  public CoursePoints(int courses, int capacity) {
+    this.courses = courses;
+    //страницы под capacity слотов создаются сразу; страница k начинается со слота 32 * (2^k - 1)
+    for (int slot = 0; slot < capacity; slot = 2 * slot + (1 << FIRST_PAGE_BITS)) {
+      page(slot);
+    }
+  }
+
+  public int allocate() {
+    int slot = size.getAndIncrement();
+    if (slot < 0) {
+      throw new IllegalStateException("Course points table is full");
+    }
+    page(slot);
+    return slot;
+  }
+
+  private static int position(int slot) {
+    return slot + (1 << FIRST_PAGE_BITS);
+  }
+
+  private static int pageIndex(int slot) {
+    return Integer.SIZE - 1 - Integer.numberOfLeadingZeros(position(slot)) - FIRST_PAGE_BITS;
+  }
+
+  private static int offset(int slot) {
+    return position(slot) ^ Integer.highestOneBit(position(slot));
+  }
+
+  private Page page(int slot) {
+    int index = pageIndex(slot);
+    Page page = pages.get(index);
+    if (page == null) {
+      pages.compareAndSet(index, null, new Page(courses, 1 << index + FIRST_PAGE_BITS));
+      page = pages.get(index);
+    }
+    return page;
+  }
+
+  @Override
+  public int getPoint(int slot, int course) {
+    return page(slot).points[course][offset(slot)];
+  }
+
+  @Override
+  public void setPoint(int slot, int course, int point) {
+    page(slot).points[course][offset(slot)] = point;
+  }
+
+  @Override
+  public boolean isNotified(int slot, int course) {
+    int bit = offset(slot) * courses + course;
+    long word = (long) NOTIFIED.getVolatile(page(slot).notified, bit >>> 6);
+    return (word & 1L << bit) != 0;
+  }
+
+  @Override
+  public void setNotified(int slot, int course) {
+    int bit = offset(slot) * courses + course;
+    NOTIFIED.getAndBitwiseOr(page(slot).notified, bit >>> 6, 1L << bit);
+  }
+
+  //монитор, под которым меняются баллы и отметки студента из слота slot
+  @Override
+  public Object getLock(int slot) {
+    return LOCKS[slot & LOCK_STRIPES - 1];
+  }
+
+  //выполняет action, пока баллы и отметки студентов всех таблиц не меняются; мониторы берутся
+  //по порядку полос, а изменение баллов держит только один, поэтому взаимной блокировки нет
+  public static <T> T callExclusively(Supplier<T> action) {
+    return callExclusively(0, action);
+  }
+
+  private static <T> T callExclusively(int stripe, Supplier<T> action) {
+    if (stripe == LOCK_STRIPES) {
+      return action.get();
+    }
+    synchronized (LOCKS[stripe]) {
+      return callExclusively(stripe + 1, action);
+    }
+  }
+
+  @Override
+  public int getCourses() {
+    return courses;
+  }
+
+  public int size() {
+    return size.get();
+  }
+}
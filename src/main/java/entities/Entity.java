@@ -33,11 +33,11 @@ public class Entity {
       return false;
     }
     Entity entity = (Entity) o;
-    return id == entity.id && name.equals(entity.name);
+    return id == entity.id && getName().equals(entity.getName());
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(id, name);
+    return Objects.hash(id, getName());
   }
 }
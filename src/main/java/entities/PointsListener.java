@@ -0,0 +1,21 @@
+package entities;
+
+public interface PointsListener {
+
+  //вызывается после каждого изменения баллов курса, course = id предмета - 1,
+  //новые баллы = student.getPoint(course)
+  void onPointsAdded(Student student, int course, int addedPoints, int oldPoints);
+
+  //начисление сразу по всем курсам, см. Student.addPoints: индекс массивов - курс,
+  //курсы без положительного начисления не менялись
+  default void onPointsAdded(Student student, int[] addedPoints, int[] oldPoints) {
+    for (int course = 0; course < addedPoints.length; course++) {
+      if (addedPoints[course] > 0) {
+        onPointsAdded(student, course, addedPoints[course], oldPoints[course]);
+      }
+    }
+  }
+
+  default void onNotified(Student student, int course) {
+  }
+}
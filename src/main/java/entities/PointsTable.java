@@ -0,0 +1,19 @@
+package entities;
+
+//таблица баллов и отметок об уведомлении студентов по курсам, строка студента - его слот.
+//Баллы студента меняются под монитором getLock(slot)
+public interface PointsTable {
+
+  int getPoint(int slot, int course);
+
+  void setPoint(int slot, int course, int point);
+
+  boolean isNotified(int slot, int course);
+
+  //в одном слове могут лежать биты разных студентов, поэтому бит ставится атомарно
+  void setNotified(int slot, int course);
+
+  Object getLock(int slot);
+
+  int getCourses();
+}
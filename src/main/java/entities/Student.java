@@ -2,32 +2,34 @@ package entities;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.Collections;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
 import entities.subjects.AcademicSubject;
-import entities.subjects.Databases;
-import entities.subjects.Dsa;
-import entities.subjects.Java;
-import entities.subjects.Spring;
-import enums.Course;
 
 public class Student extends Entity {
 
   private String lastname;
   private String email;
-  private List<AcademicSubject> academicSubjects;
-  private boolean isNotified;
+  //баллы хранятся в строке slot общей таблицы хранилища; до регистрации таблица своя
+  private PointsTable coursePoints;
+  private int slot;
+  private PointsListener pointsListener;
 
   public Student(int id, String name, String lastname, String email) {
     super(id, name);
     this.lastname = lastname;
     this.email = email;
-    isNotified = true;
-    addDefaultAcademicSubjects();
+  }
+
+  //студент, баллы которого уже лежат в строке slot таблицы table
+  protected Student(int id, String name, String lastname, String email, PointsTable table,
+      int slot) {
+    this(id, name, lastname, email);
+    coursePoints = table;
+    this.slot = slot;
   }
 
   public String getLastname() {
@@ -38,58 +40,165 @@ public class Student extends Entity {
     return email;
   }
 
-  private void addDefaultAcademicSubjects() {
-    this.academicSubjects = new LinkedList<>();
-    academicSubjects.add(new Java());
-    academicSubjects.add(new Dsa());
-    academicSubjects.add(new Databases());
-    academicSubjects.add(new Spring());
+  //курсы студента - курсы каталога; индекс курса = id предмета - 1
+  public static int getCoursesCount() {
+    return CourseCatalog.getCurrent().size();
+  }
+
+  public static CourseDefinition getCourse(int course) {
+    return CourseCatalog.getCurrent().get(course);
+  }
+
+  //переносит баллы и отметки в строку slot таблицы table
+  public void moveTo(PointsTable table, int slot) {
+    for (int course = 0; course < getCoursesCount(); course++) {
+      table.setPoint(slot, course, getPoint(course));
+      if (isNotified(course)) {
+        table.setNotified(slot, course);
+      }
+    }
+    coursePoints = table;
+    this.slot = slot;
+  }
+
+  private PointsTable getCoursePoints() {
+    if (coursePoints == null) {
+      CoursePoints own = new CoursePoints(getCoursesCount(), 1);
+      slot = own.allocate();
+      coursePoints = own;
+    }
+    return coursePoints;
   }
 
+  public void setPointsListener(PointsListener pointsListener) {
+    this.pointsListener = pointsListener;
+  }
+
+  public int getPoint(int course) {
+    return coursePoints == null ? 0 : coursePoints.getPoint(slot, course);
+  }
+
+  //баллы ограничены максимумом курса; начисления одному студенту из разных потоков
+  //выполняются по очереди, и слушатель получает их в том же порядке
+  public void addPoint(int course, int points) {
+    if (points == 0) {
+      return;
+    }
+    PointsTable table = getCoursePoints();
+    synchronized (table.getLock(slot)) {
+      int oldPoints = table.getPoint(slot, course);
+      int newPoints = Math.min(oldPoints + points, getCourse(course).getMaxPoints());
+      table.setPoint(slot, course, newPoints);
+      if (pointsListener != null) {
+        pointsListener.onPointsAdded(this, course, points, oldPoints);
+      }
+    }
+  }
+
+  public boolean isNotified(int course) {
+    return coursePoints != null && coursePoints.isNotified(slot, course);
+  }
+
+  public void setNotified(int course) {
+    PointsTable table = getCoursePoints();
+    synchronized (table.getLock(slot)) {
+      if (table.isNotified(slot, course)) {
+        return;
+      }
+      table.setNotified(slot, course);
+      if (pointsListener != null) {
+        pointsListener.onNotified(this, course);
+      }
+    }
+  }
+
+  //представления создаются при каждом вызове и читают баллы из таблицы
   public List<AcademicSubject> getAcademicSubjects() {
-    return Collections.unmodifiableList(academicSubjects);
+    CourseCatalog catalog = CourseCatalog.getCurrent();
+    List<AcademicSubject> subjects = new ArrayList<>(catalog.size());
+    for (int course = 0; course < catalog.size(); course++) {
+      subjects.add(AcademicSubject.of(this, catalog.get(course)));
+    }
+    return List.copyOf(subjects);
   }
 
-  private Optional<AcademicSubject> getAcademicSubject(int id) {
-    return academicSubjects.stream().filter(subject -> subject.getId() == id).findFirst();
+  public Optional<AcademicSubject> getAcademicSubject(int id) {
+    if (id < 1 || id > getCoursesCount()) {
+      return Optional.empty();
+    }
+    return Optional.of(AcademicSubject.of(this, getCourse(id - 1)));
   }
 
   //если предмет не существует, то выбрасывается исключение NoSuchElementsException
   public AcademicSubject getAcademicSubjectByName(String subject) {
-    if (!Course.isExistedCourse(subject)) {
+    CourseDefinition course = CourseCatalog.getCurrent().find(subject);
+    if (course == null) {
       throw new NoSuchElementException();
     }
-    return academicSubjects.stream()
-        .filter(academicSubject -> academicSubject.getName().equalsIgnoreCase(subject)).findFirst()
-        .get();
+    return AcademicSubject.of(this, course);
   }
 
   public String[] getAcademicSubjectStats(String subject) {
     AcademicSubject academicSubject = getAcademicSubjectByName(subject);
     return new String[]{academicSubject.getName(), Integer.toString(academicSubject.getPoint()),
-        new BigDecimal(
-            (double) academicSubject.getPoint() / academicSubject.getMaxPointsValue()).setScale(3,
-            RoundingMode.HALF_DOWN).scaleByPowerOfTen(2) + "%"};
+        formatCompleted(academicSubject.getPoint(), academicSubject.getMaxPointsValue())};
+  }
+
+  //доля пройденного курса в процентах с одним знаком после запятой
+  public static String formatCompleted(int points, int maxPoints) {
+    return new BigDecimal((double) points / maxPoints).setScale(3, RoundingMode.HALF_DOWN)
+        .scaleByPowerOfTen(2) + "%";
   }
 
   public boolean updatePoints(int[] subjectsId, int[] points) {
     if (points.length != subjectsId.length) {
       return false;
     }
+    int[] coursePoints = new int[getCoursesCount()];
     boolean isUpdated = false;
     for (int i = 0; i < subjectsId.length; i++) {
-      Optional<AcademicSubject> subject = getAcademicSubject(subjectsId[i]);
-      if (subject.isPresent() && points[i] >= 0) {
-        subject.get().addPoint(points[i]);
+      int course = subjectsId[i] - 1;
+      if (course >= 0 && course < coursePoints.length && points[i] >= 0) {
+        coursePoints[course] += points[i];
         isUpdated = true;
       }
     }
-    return isUpdated;
+    return isUpdated && addPoints(coursePoints);
+  }
+
+  //points[course] по всем курсам каталога за один проход: курсы меняются под одной блокировкой,
+  //слушатель получает начисление одним вызовом. Отрицательные баллы пропускаются
+  public boolean addPoints(int[] points) {
+    CourseCatalog catalog = CourseCatalog.getCurrent();
+    if (points.length != catalog.size()) {
+      return false;
+    }
+    PointsTable table = getCoursePoints();
+    synchronized (table.getLock(slot)) {
+      int[] oldPoints = new int[points.length];
+      boolean isChanged = false;
+      for (int course = 0; course < points.length; course++) {
+        oldPoints[course] = table.getPoint(slot, course);
+        if (points[course] > 0) {
+          table.setPoint(slot, course, Math.min(oldPoints[course] + points[course],
+              catalog.get(course).getMaxPoints()));
+          isChanged = true;
+        }
+      }
+      if (isChanged && pointsListener != null) {
+        pointsListener.onPointsAdded(this, points, oldPoints);
+      }
+    }
+    return true;
   }
 
   public boolean isEnrolled() {
-    return academicSubjects.stream().filter(subject -> subject.getPoint() > 0).count() > 0 ? true
-        : false;
+    for (int course = 0; course < getCoursesCount(); course++) {
+      if (getPoint(course) > 0) {
+        return true;
+      }
+    }
+    return false;
   }
 
   @Override
@@ -104,22 +213,35 @@ public class Student extends Entity {
       return false;
     }
     Student student = (Student) o;
-    return lastname.equals(student.lastname) && email.equals(student.email)
-        && academicSubjects.equals(student.academicSubjects);
+    if (!getLastname().equals(student.getLastname()) || !getEmail().equals(student.getEmail())) {
+      return false;
+    }
+    for (int course = 0; course < getCoursesCount(); course++) {
+      if (getPoint(course) != student.getPoint(course)
+          || isNotified(course) != student.isNotified(course)) {
+        return false;
+      }
+    }
+    return true;
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(super.hashCode(), lastname, email, academicSubjects);
+    int hash = Objects.hash(super.hashCode(), getLastname(), getEmail());
+    for (int course = 0; course < getCoursesCount(); course++) {
+      hash = 31 * hash + getPoint(course);
+      hash = 31 * hash + (isNotified(course) ? 1 : 0);
+    }
+    return hash;
   }
 
   @Override
   public String toString() {
     return "Student{" +
-        "lastname='" + lastname + '\'' +
-        ", email='" + email + '\'' +
+        "lastname='" + getLastname() + '\'' +
+        ", email='" + getEmail() + '\'' +
         ", id=" + id +
-        ", name='" + name + '\'' +
+        ", name='" + getName() + '\'' +
         '}';
   }
 
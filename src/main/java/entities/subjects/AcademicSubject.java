@@ -1,51 +1,64 @@
 package entities.subjects;
 
 import java.util.Objects;
+import entities.CourseDefinition;
+import entities.Student;
+import enums.Course;
 
+//представление курса конкретного студента: баллы и отметка об уведомлении хранятся в Student,
+//описание курса - общее из каталога
 public abstract class AcademicSubject {
 
-  protected int id;
-  protected int point;
-  protected String name;
-  protected int maxPointsValue;
-  protected boolean isNotified;
+  private final Student student;
+  private final CourseDefinition course;
 
-  protected AcademicSubject() {
-    point = 0;
-    isNotified = false;
+  protected AcademicSubject(Student student, CourseDefinition course) {
+    this.student = student;
+    this.course = course;
   }
+
+  //встроенные курсы представлены своими классами, курсы из файла определений - CatalogSubject
+  public static AcademicSubject of(Student student, CourseDefinition course) {
+    Course builtIn = Course.find(course.getName());
+    if (builtIn == null) {
+      return new CatalogSubject(student, course);
+    }
+    return switch (builtIn) {
+      case JAVA -> new Java(student, course);
+      case DSA -> new Dsa(student, course);
+      case DATABASES -> new Databases(student, course);
+      case SPRING -> new Spring(student, course);
+      default -> new CatalogSubject(student, course);
+    };
+  }
+
   public int getPoint() {
-    return point;
+    return student.getPoint(course.getId() - 1);
   }
 
   public void addPoint(int point) {
-    int newPoints = this.point + point;
-    if (newPoints > maxPointsValue) {
-      this.point = maxPointsValue;
-    } else {
-      this.point = newPoints;
-    }
+    student.addPoint(course.getId() - 1, point);
   }
 
   public int getId() {
-    return id;
+    return course.getId();
   }
 
   public String getName() {
-    return name;
+    return course.getName();
   }
 
   public int getMaxPointsValue() {
-    return maxPointsValue;
+    return course.getMaxPoints();
   }
 
   public boolean isNotified() {
-    return isNotified;
+    return student.isNotified(course.getId() - 1);
   }
 
-   public void setNotify() {
-    isNotified = true;
-   }
+  public void setNotify() {
+    student.setNotified(course.getId() - 1);
+  }
 
   @Override
   public boolean equals(Object o) {
@@ -56,12 +69,13 @@ public abstract class AcademicSubject {
       return false;
     }
     AcademicSubject that = (AcademicSubject) o;
-    return id == that.id && point == that.point && maxPointsValue == that.maxPointsValue
-        && isNotified == that.isNotified && name.equals(that.name);
+    return getId() == that.getId() && getPoint() == that.getPoint()
+        && getMaxPointsValue() == that.getMaxPointsValue() && isNotified() == that.isNotified()
+        && getName().equals(that.getName());
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(id, point, name, maxPointsValue, isNotified);
+    return Objects.hash(getId(), getPoint(), getName(), getMaxPointsValue(), isNotified());
   }
 }
@@ -0,0 +1,12 @@
+package entities.subjects;
+
+import entities.CourseDefinition;
+import entities.Student;
+
+//курс, загруженный из файла определений, без отдельного класса
+public class CatalogSubject extends AcademicSubject {
+
+  public CatalogSubject(Student student, CourseDefinition course) {
+    super(student, course);
+  }
+}
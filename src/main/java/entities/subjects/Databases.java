@@ -1,11 +1,11 @@
 package entities.subjects;
 
+import entities.CourseDefinition;
+import entities.Student;
+
 public class Databases extends AcademicSubject {
 
-  public Databases() {
-    super();
-    id = 3;
-    name = "Databases";
-    maxPointsValue = 480;
+  public Databases(Student student, CourseDefinition course) {
+    super(student, course);
   }
 }
@@ -1,11 +1,11 @@
 package entities.subjects;
 
+import entities.CourseDefinition;
+import entities.Student;
+
 public class Dsa extends AcademicSubject {
 
-  public Dsa() {
-    super();
-    id = 2;
-    name = "DSA";
-    maxPointsValue = 400;
+  public Dsa(Student student, CourseDefinition course) {
+    super(student, course);
   }
 }
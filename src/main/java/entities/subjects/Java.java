@@ -1,12 +1,11 @@
 package entities.subjects;
 
+import entities.CourseDefinition;
+import entities.Student;
+
 public class Java extends AcademicSubject {
 
-  public Java() {
-    super();
-    id = 1;
-    name = "Java";
-    maxPointsValue = 600;
+  public Java(Student student, CourseDefinition course) {
+    super(student, course);
   }
-
 }
@@ -1,11 +1,11 @@
 package entities.subjects;
 
+import entities.CourseDefinition;
+import entities.Student;
+
 public class Spring extends AcademicSubject {
 
-  public Spring() {
-    super();
-    id = 4;
-    name = "Spring";
-    maxPointsValue = 550;
+  public Spring(Student student, CourseDefinition course) {
+    super(student, course);
   }
 }
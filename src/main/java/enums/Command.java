@@ -1,29 +1,61 @@
 package enums;
 
-import java.util.Arrays;
-
 public enum Command {
   EXIT("exit"), ADD_STUDENTS("add students"), BACK("back"), UNKNOWN("unknown"), LIST(
-      "list"), ADD_POINTS("add points"), FIND("find"), STATISTICS("statistics"), NOTIFY(
-      "notify");// QUIT, HELP;
+      "list", true), ADD_POINTS("add points"), FIND("find"), STATISTICS("statistics"), NOTIFY(
+      "notify"), IMPORT_STUDENTS("import students", true), IMPORT_POINTS(
+      "import points", true), SNAPSHOT("snapshot"), METRICS("metrics");// QUIT, HELP;
+  private static final NameTable<Command> TABLE = new NameTable<>(values(),
+      command -> command.description);
   private String description;
+  private boolean hasArguments;
 
   Command(String description) {
+    this(description, false);
+  }
+
+  Command(String description, boolean hasArguments) {
     this.description = description;
+    this.hasArguments = hasArguments;
   }
 
   public static Command getByDescription(String description) {
-    if (!isCommand(description)) {
-      return UNKNOWN;
-    } else {
-      return Arrays.stream(Command.values())
-          .filter(command -> command.description.equalsIgnoreCase(description))
-          .findFirst().get();
-    }
+    Command command = find(description);
+    return command == null ? UNKNOWN : command;
   }
 
   public static boolean isCommand(String input) {
-    return Arrays.stream(Command.values())
-        .anyMatch(command -> command.description.equalsIgnoreCase(input));
+    return find(input) != null;
+  }
+
+  //команда по строке ввода или null; команда с аргументами распознается по описанию,
+  //за которым через пробел следуют аргументы. Поиск идет по таблице и не создает объектов
+  public static Command find(String input) {
+    Command command = TABLE.get(input, 0, input.length());
+    if (command != null) {
+      return command;
+    }
+    int end = Math.min(input.length(), TABLE.getMaxLength() + 1);
+    for (int i = 1; i < end; i++) {
+      if (Character.isWhitespace(input.charAt(i))) {
+        command = TABLE.get(input, 0, i);
+        if (command != null && command.hasArguments) {
+          return command;
+        }
+      }
+    }
+    return null;
+  }
+
+  public String getDescription() {
+    return description;
+  }
+
+  //возвращает пустую строку, если аргументов нет
+  public String getArguments(String input) {
+    if (!hasArguments || input.length() <= description.length()) {
+      return "";
+    }
+    return input.substring(description.length()).trim();
   }
 }
@@ -4,27 +4,65 @@ import java.util.Arrays;
 import java.util.stream.Collectors;
 
 public enum Course {
-  JAVA("Java"), DSA("DSA"), DATABASES("Databases"), SPRING("Spring"), UNKNOWN("Unknown");
+  JAVA("Java", 600), DSA("DSA", "Dsa", 400), DATABASES("Databases", 480), SPRING("Spring",
+      550), UNKNOWN("Unknown", 0);
 
+  private static final NameTable<Course> TABLE = new NameTable<>(values(), Course::getName);
   private final String name;
+  //название в выводе баллов студента (команда find)
+  private final String label;
+  private final int maxPoints;
 
-  Course(String name) {
+  Course(String name, int maxPoints) {
+    this(name, name, maxPoints);
+  }
+
+  Course(String name, String label, int maxPoints) {
     this.name = name;
+    this.label = label;
+    this.maxPoints = maxPoints;
   }
 
   public String getName() {
     return name;
   }
 
+  public String getLabel() {
+    return label;
+  }
+
+  //id предмета курса = ordinal() + 1
+  public int getId() {
+    return ordinal() + 1;
+  }
+
+  public int getMaxPoints() {
+    return maxPoints;
+  }
+
   public static boolean isExistedCourse(String name) {
-    return Arrays.stream(Course.values()).anyMatch(x -> x.name.equalsIgnoreCase(name.trim()));
+    return find(name) != null;
   }
 
   public static Course getCourseByName(String name) {
-    if (!isExistedCourse(name)) {
+    Course course = find(name);
+    if (course == null) {
       throw new EnumConstantNotPresentException(Course.class, name);
     }
-    return Arrays.stream(Course.values()).filter(x -> x.name.equalsIgnoreCase(name.trim())).findFirst().get();
+    return course;
+  }
+
+  //курс по имени без учета регистра и пробелов по краям или null, без создания строк
+  public static Course find(CharSequence name) {
+    int from = 0;
+    int to = name.length();
+    while (from < to && name.charAt(from) <= ' ') {
+      from++;
+    }
+    while (to > from && name.charAt(to - 1) <= ' ') {
+      to--;
+    }
+    return TABLE.get(name, from, to);
   }
 
   public static String[] nameValues() {
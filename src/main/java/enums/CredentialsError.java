@@ -0,0 +1,16 @@
+package enums;
+
+public enum CredentialsError {
+  CREDENTIALS("Incorrect credentials."), FIRST_NAME("Incorrect first name."), LAST_NAME(
+      "Incorrect last name."), EMAIL("Incorrect email.");
+
+  private final String message;
+
+  CredentialsError(String message) {
+    this.message = message;
+  }
+
+  public String getMessage() {
+    return message;
+  }
+}
@@ -0,0 +1,77 @@
+package enums;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+//таблица значений по имени без учета регистра с открытой адресацией; хеш считается прямо
+//по символам строки, поэтому поиск не создает строк и не перебирает values()
+public class NameTable<E> {
+
+  private final E[] constants;
+  private final String[] names;
+  private final int mask;
+  private final int maxLength;
+
+  public NameTable(E[] values, Function<E, String> name) {
+    int size = Integer.highestOneBit(Math.max(values.length, 1) * 4 - 1) << 1;
+    //массив того же типа, что values, заполненный null
+    constants = Arrays.copyOf(values, size);
+    Arrays.fill(constants, null);
+    names = new String[size];
+    mask = size - 1;
+    int longest = 0;
+    for (E value : values) {
+      String key = name.apply(value);
+      int slot = hash(key, 0, key.length()) & mask;
+      while (names[slot] != null) {
+        slot = slot + 1 & mask;
+      }
+      names[slot] = key;
+      constants[slot] = value;
+      longest = Math.max(longest, key.length());
+    }
+    maxLength = longest;
+  }
+
+  //регистр приводится так же, как в String.equalsIgnoreCase
+  private static char fold(char c) {
+    return Character.toLowerCase(Character.toUpperCase(c));
+  }
+
+  private static int hash(CharSequence text, int from, int to) {
+    int hash = 0;
+    for (int i = from; i < to; i++) {
+      hash = 31 * hash + fold(text.charAt(i));
+    }
+    return hash ^ hash >>> 16;
+  }
+
+  //значение, имя которого совпадает с text[from, to) без учета регистра, иначе null
+  public E get(CharSequence text, int from, int to) {
+    int length = to - from;
+    if (length > maxLength) {
+      return null;
+    }
+    for (int slot = hash(text, from, to) & mask; names[slot] != null; slot = slot + 1 & mask) {
+      if (names[slot].length() == length && equalsIgnoreCase(names[slot], text, from)) {
+        return constants[slot];
+      }
+    }
+    return null;
+  }
+
+  private static boolean equalsIgnoreCase(String name, CharSequence text, int from) {
+    for (int i = 0; i < name.length(); i++) {
+      char expected = name.charAt(i);
+      char actual = text.charAt(from + i);
+      if (expected != actual && fold(expected) != fold(actual)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public int getMaxLength() {
+    return maxLength;
+  }
+}
@@ -0,0 +1,5 @@
+package enums;
+
+public enum PointsParseResult {
+  VALID, INCORRECT_FORMAT, UNKNOWN_ID
+}
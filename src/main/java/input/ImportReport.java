@@ -0,0 +1,77 @@
+package input;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//итоги импорта; причины отказа хранятся агрегированно, поэтому размер отчета не зависит от файла
+public class ImportReport {
+
+  private long accepted;
+  private long rejected;
+  private final Map<String, RejectReason> rejectReasons = new LinkedHashMap<>();
+  //ошибка чтения, на которой импорт остановился, и номер последней обработанной строки
+  private IOException failure;
+  private long failedAfterLine;
+
+  void accept() {
+    accepted++;
+  }
+
+  void reject(String reason, long lineNumber) {
+    rejected++;
+    rejectReasons.computeIfAbsent(reason, key -> new RejectReason(key, lineNumber)).count++;
+  }
+
+  void fail(IOException failure, long lineNumber) {
+    this.failure = failure;
+    failedAfterLine = lineNumber;
+  }
+
+  public long getAccepted() {
+    return accepted;
+  }
+
+  public long getRejected() {
+    return rejected;
+  }
+
+  public Collection<RejectReason> getRejectReasons() {
+    return Collections.unmodifiableCollection(rejectReasons.values());
+  }
+
+  //null, если файл прочитан до конца
+  public IOException getFailure() {
+    return failure;
+  }
+
+  public long getFailedAfterLine() {
+    return failedAfterLine;
+  }
+
+  public static class RejectReason {
+
+    private final String message;
+    private final long firstLine;
+    private long count;
+
+    private RejectReason(String message, long firstLine) {
+      this.message = message;
+      this.firstLine = firstLine;
+    }
+
+    public String getMessage() {
+      return message;
+    }
+
+    public long getFirstLine() {
+      return firstLine;
+    }
+
+    public long getCount() {
+      return count;
+    }
+  }
+}
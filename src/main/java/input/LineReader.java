@@ -0,0 +1,127 @@
+package input;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+//читает строки UTF-8 из потока большими блоками, без Scanner и его регулярных выражений;
+//окончание строки - \n или \r\n, последняя строка может быть без перевода строки.
+//Некорректные байты UTF-8 заменяются на U+FFFD. От строки длиннее maxLineLength байт
+//возвращается только начало, см. isTruncated()
+public class LineReader {
+
+  public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+  private final InputStream input;
+  private final int bufferSize;
+  //буфер выделяется при первом чтении
+  private byte[] buffer;
+  private int start;
+  private int end;
+  //до этой позиции буфер уже просмотрен и перевода строки в нем нет
+  private int scanned;
+  private boolean isEof;
+  private final int maxLineLength;
+  private boolean isTruncated;
+
+  public LineReader(InputStream input, int bufferSize) {
+    this(input, bufferSize, Integer.MAX_VALUE);
+  }
+
+  public LineReader(InputStream input, int bufferSize, int maxLineLength) {
+    this.input = input;
+    this.bufferSize = bufferSize;
+    this.maxLineLength = maxLineLength;
+  }
+
+  //null, если поток закончился
+  public String readLine() throws IOException {
+    isTruncated = false;
+    while (true) {
+      int newline = findNewline();
+      if (newline >= 0) {
+        return newline - start > maxLineLength ? skipLine() : takeLine(newline, newline + 1);
+      }
+      if (end - start > maxLineLength) {
+        return skipLine();
+      }
+      if (isEof) {
+        return start < end ? takeLine(end, end) : null;
+      }
+      fill();
+    }
+  }
+
+  //true, если последняя строка длиннее maxLineLength и readLine() вернул только ее начало
+  public boolean isTruncated() {
+    return isTruncated;
+  }
+
+  //возвращает первые maxLineLength байт строки, остаток до перевода строки пропускается,
+  //не попадая в буфер целиком
+  private String skipLine() throws IOException {
+    String head = new String(buffer, start, maxLineLength, StandardCharsets.UTF_8);
+    isTruncated = true;
+    while (true) {
+      int newline = findNewline();
+      if (newline >= 0) {
+        start = newline + 1;
+        scanned = start;
+        return head;
+      }
+      start = end;
+      if (isEof) {
+        return head;
+      }
+      fill();
+    }
+  }
+
+  //true, если следующая строка уже целиком в буфере и readLine() не будет ждать ввода
+  public boolean hasBufferedLine() {
+    return findNewline() >= 0 || isEof && start < end;
+  }
+
+  private int findNewline() {
+    for (; scanned < end; scanned++) {
+      if (buffer[scanned] == '\n') {
+        return scanned;
+      }
+    }
+    return -1;
+  }
+
+  private String takeLine(int lineEnd, int next) {
+    int length = lineEnd - start;
+    if (length > 0 && buffer[lineEnd - 1] == '\r') {
+      length--;
+    }
+    String line = new String(buffer, start, length, StandardCharsets.UTF_8);
+    start = next;
+    scanned = next;
+    return line;
+  }
+
+  //сдвигает непрочитанное в начало буфера, при необходимости расширяет его и дочитывает поток
+  private void fill() throws IOException {
+    if (buffer == null) {
+      buffer = new byte[bufferSize];
+    }
+    if (start > 0) {
+      System.arraycopy(buffer, start, buffer, 0, end - start);
+      end -= start;
+      scanned -= start;
+      start = 0;
+    }
+    if (end == buffer.length) {
+      buffer = Arrays.copyOf(buffer, buffer.length * 2);
+    }
+    int read = input.read(buffer, end, buffer.length - end);
+    if (read < 0) {
+      isEof = true;
+    } else {
+      end += read;
+    }
+  }
+}
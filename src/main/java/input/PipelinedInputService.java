@@ -0,0 +1,91 @@
+package input;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+//конвейерный ввод для пакетной подачи команд (--input pipelined): поток чтения выделяет строки
+//из буфера, а поток сессии разбирает и выполняет их, пока читаются следующие. Строки разбираются
+//только там, где команда их ждет, например как баллы в add points, см. getPointsInput.
+//Стадии связаны ограниченной очередью пачек строк, порядок строк сохраняется
+public class PipelinedInputService extends UserInputService {
+
+  public static final int DEFAULT_QUEUE_CAPACITY = 16;
+  private static final int BATCH_SIZE = 256;
+  //пустая пачка означает конец ввода
+  private static final String[] END_OF_INPUT = new String[0];
+
+  private final BlockingQueue<String[]> lines;
+  private volatile IOException failure;
+  private String[] batch = new String[0];
+  private int next;
+
+  public PipelinedInputService(InputStream input, int bufferSize, int queueCapacity) {
+    super(InputStream.nullInputStream());
+    lines = new ArrayBlockingQueue<>(queueCapacity);
+    LineReader reader = new LineReader(input, bufferSize);
+    Thread thread = new Thread(() -> {
+      try {
+        read(reader);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }, "input-reader");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  //пачка отправляется, когда набрано BATCH_SIZE строк или следующая строка еще не пришла
+  private void read(LineReader reader) throws InterruptedException {
+    String[] batch = new String[BATCH_SIZE];
+    int size = 0;
+    try {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        batch[size++] = line;
+        if (size == BATCH_SIZE || !reader.hasBufferedLine()) {
+          lines.put(Arrays.copyOf(batch, size));
+          size = 0;
+        }
+      }
+    } catch (IOException e) {
+      failure = e;
+    }
+    if (size > 0) {
+      lines.put(Arrays.copyOf(batch, size));
+    }
+    lines.put(END_OF_INPUT);
+  }
+
+  @Override
+  public String getStringInput() {
+    return hasInput() ? batch[next++].trim() : "";
+  }
+
+  @Override
+  public boolean hasInput() {
+    if (next < batch.length) {
+      return true;
+    }
+    if (batch == END_OF_INPUT) {
+      return false;
+    }
+    if (lines.isEmpty()) {
+      onIdle();
+    }
+    try {
+      batch = lines.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      batch = END_OF_INPUT;
+    }
+    next = 0;
+    if (batch == END_OF_INPUT && failure != null) {
+      throw new UncheckedIOException(failure);
+    }
+    return batch.length > 0;
+  }
+}
@@ -0,0 +1,151 @@
+package input;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.function.Consumer;
+import db.TempStudentStorage;
+import entities.Student;
+import enums.Command;
+import enums.PointsParseResult;
+import metrics.Metrics;
+
+//импорт баллов из файла: строки разбираются прямо в буфере чтения в пакет примитивных массивов,
+//пакет применяется к студентам целиком; ошибки выводятся в том же формате, что и в "add points"
+public class PointsImporter {
+
+  public static final String INCORRECT_FORMAT = "Incorrect points format";
+  public static final String UNKNOWN_ID = "No student is found for id=";
+  private static final String UNKNOWN_ID_REASON = "No student is found";
+  private static final String POINTS_UPDATED = "Points updated.";
+  private static final int BUFFER_SIZE = 1 << 16;
+  private static final int BATCH_SIZE = 4096;
+
+  private final PointsParser parser = new PointsParser();
+  private final int courses = parser.getCount();
+  private final int[] ids = new int[BATCH_SIZE];
+  private final int[] points = new int[BATCH_SIZE * courses];
+  private final PointsParseResult[] results = new PointsParseResult[BATCH_SIZE];
+  private final long[] lineNumbers = new long[BATCH_SIZE];
+  //время разбора строки; в метрики строки входят разбор и применение, без чтения файла
+  private final long[] parseNanos = new long[BATCH_SIZE];
+  //id в исходном виде, заполняется только для строк с ошибкой
+  private final String[] unknownIds = new String[BATCH_SIZE];
+  private final int[] studentPoints = new int[courses];
+  private int batchSize;
+
+  public ImportReport importPoints(Path file, Consumer<String> errorOutput) throws IOException {
+    ImportReport report = new ImportReport();
+    batchSize = 0;
+    try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      char[] buffer = new char[BUFFER_SIZE];
+      CharBuffer chars = CharBuffer.wrap(buffer);
+      int length = 0;
+      long lineNumber = 0;
+      boolean isEndOfFile = false;
+      while (!isEndOfFile) {
+        if (length == buffer.length) {
+          //строка длиннее буфера: увеличиваем его
+          char[] grown = new char[buffer.length * 2];
+          System.arraycopy(buffer, 0, grown, 0, length);
+          buffer = grown;
+          chars = CharBuffer.wrap(buffer);
+        }
+        int read = reader.read(buffer, length, buffer.length - length);
+        if (read < 0) {
+          isEndOfFile = true;
+        } else {
+          length += read;
+        }
+        int lineStart = 0;
+        for (int i = 0; i < length; i++) {
+          if (buffer[i] == '\n') {
+            addLine(chars, lineStart, i, ++lineNumber, report, errorOutput);
+            lineStart = i + 1;
+          }
+        }
+        if (isEndOfFile && lineStart < length) {
+          addLine(chars, lineStart, length, ++lineNumber, report, errorOutput);
+          lineStart = length;
+        }
+        System.arraycopy(buffer, lineStart, buffer, 0, length - lineStart);
+        length -= lineStart;
+      }
+    }
+    applyBatch(report, errorOutput);
+    return report;
+  }
+
+  private void addLine(CharSequence chars, int from, int to, long lineNumber,
+      ImportReport report, Consumer<String> errorOutput) {
+    if (isBlank(chars, from, to)) {
+      return;
+    }
+    long started = Metrics.startTimer();
+    PointsParseResult result = parser.parse(chars, from, to);
+    results[batchSize] = result;
+    lineNumbers[batchSize] = lineNumber;
+    if (result == PointsParseResult.VALID) {
+      ids[batchSize] = parser.getId();
+      System.arraycopy(parser.getPoints(), 0, points, batchSize * courses, courses);
+    } else if (result == PointsParseResult.UNKNOWN_ID) {
+      unknownIds[batchSize] = chars.subSequence(parser.getIdStart(), parser.getIdEnd())
+          .toString();
+    }
+    parseNanos[batchSize] = Metrics.elapsed(started);
+    if (++batchSize == BATCH_SIZE) {
+      applyBatch(report, errorOutput);
+    }
+  }
+
+  private void applyBatch(ImportReport report, Consumer<String> errorOutput) {
+    for (int i = 0; i < batchSize; i++) {
+      long started = Metrics.startTimer();
+      if (results[i] == PointsParseResult.INCORRECT_FORMAT) {
+        reject(INCORRECT_FORMAT, INCORRECT_FORMAT, i, report, errorOutput, started);
+        continue;
+      }
+      if (results[i] == PointsParseResult.UNKNOWN_ID) {
+        reject(UNKNOWN_ID_REASON, UNKNOWN_ID + unknownIds[i], i, report, errorOutput, started);
+        unknownIds[i] = null;
+        continue;
+      }
+      Optional<Student> student = TempStudentStorage.getStudentById(ids[i]);
+      if (student.isEmpty()) {
+        reject(UNKNOWN_ID_REASON, UNKNOWN_ID + ids[i], i, report, errorOutput, started);
+        continue;
+      }
+      System.arraycopy(points, i * courses, studentPoints, 0, courses);
+      student.get().addPoints(studentPoints);
+      report.accept();
+      recordLine(POINTS_UPDATED, i, started);
+    }
+    batchSize = 0;
+  }
+
+  private void reject(String reason, String message, int index, ImportReport report,
+      Consumer<String> errorOutput, long started) {
+    report.reject(reason, lineNumbers[index]);
+    errorOutput.accept(message);
+    recordLine(reason, index, started);
+  }
+
+  //замер строки начинается раньше на время ее разбора
+  private void recordLine(String outcome, int index, long started) {
+    Metrics.recordLine(Command.IMPORT_POINTS, outcome,
+        started == 0 ? 0 : started - parseNanos[index]);
+  }
+
+  private static boolean isBlank(CharSequence chars, int from, int to) {
+    for (int i = from; i < to; i++) {
+      if (!Character.isWhitespace(chars.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,52 @@
+package input;
+
+import enums.PointsParseResult;
+
+//строка ввода вместе с результатом ее разбора как "id p1 p2 p3 p4"
+public class PointsLine {
+
+  private final String text;
+  private final PointsParseResult result;
+  private final int id;
+  private final int[] points;
+  private final String idText;
+
+  private PointsLine(String text, PointsParseResult result, int id, int[] points,
+      String idText) {
+    this.text = text;
+    this.result = result;
+    this.id = id;
+    this.points = points;
+    this.idText = idText;
+  }
+
+  public static PointsLine parse(String text, PointsParser parser) {
+    PointsParseResult result = parser.parse(text);
+    if (result == PointsParseResult.INCORRECT_FORMAT) {
+      return new PointsLine(text, result, 0, null, null);
+    }
+    return new PointsLine(text, result, parser.getId(), parser.getPoints().clone(),
+        text.substring(parser.getIdStart(), parser.getIdEnd()));
+  }
+
+  public String getText() {
+    return text;
+  }
+
+  public PointsParseResult getResult() {
+    return result;
+  }
+
+  public int getId() {
+    return id;
+  }
+
+  public int[] getPoints() {
+    return points;
+  }
+
+  //id в том виде, в каком он записан в строке
+  public String getIdText() {
+    return idText;
+  }
+}
@@ -0,0 +1,114 @@
+package input;
+
+import entities.CourseCatalog;
+import enums.PointsParseResult;
+
+//разбор строки "id p1 ... pN" без регулярных выражений и без выделения памяти;
+//формат совпадает с шаблоном ^(\w+\s)(\d+\s){N-1}\d+$, результат хранится в самом парсере
+public class PointsParser {
+
+  private int id;
+  private final int[] points;
+  private int idStart;
+  private int idEnd;
+
+  //по баллу на каждый курс каталога
+  public PointsParser() {
+    this(CourseCatalog.getCurrent().size());
+  }
+
+  public PointsParser(int count) {
+    points = new int[count];
+  }
+
+  public int getCount() {
+    return points.length;
+  }
+
+  public PointsParseResult parse(CharSequence line) {
+    return parse(line, 0, line.length());
+  }
+
+  //разбирается диапазон [from, to); пробельные символы по краям пропускаются
+  public PointsParseResult parse(CharSequence line, int from, int to) {
+    while (from < to && isWhitespace(line.charAt(from))) {
+      from++;
+    }
+    while (to > from && isWhitespace(line.charAt(to - 1))) {
+      to--;
+    }
+    int position = from;
+    while (position < to && isWordChar(line.charAt(position))) {
+      position++;
+    }
+    if (position == from || position == to || !isWhitespace(line.charAt(position))) {
+      return PointsParseResult.INCORRECT_FORMAT;
+    }
+    idStart = from;
+    idEnd = position;
+    for (int i = 0; i < points.length; i++) {
+      position++;
+      int start = position;
+      long value = 0;
+      while (position < to && isDigit(line.charAt(position))) {
+        if (value <= Integer.MAX_VALUE) {
+          value = value * 10 + line.charAt(position) - '0';
+        }
+        position++;
+      }
+      boolean isLast = i == points.length - 1;
+      if (position == start || value > Integer.MAX_VALUE
+          || (isLast ? position != to : position == to || !isWhitespace(line.charAt(position)))) {
+        return PointsParseResult.INCORRECT_FORMAT;
+      }
+      points[i] = (int) value;
+    }
+    return parseId(line) ? PointsParseResult.VALID : PointsParseResult.UNKNOWN_ID;
+  }
+
+  private boolean parseId(CharSequence line) {
+    long value = 0;
+    for (int i = idStart; i < idEnd; i++) {
+      char c = line.charAt(i);
+      if (!isDigit(c)) {
+        return false;
+      }
+      value = value * 10 + c - '0';
+      if (value > Integer.MAX_VALUE) {
+        return false;
+      }
+    }
+    id = (int) value;
+    return true;
+  }
+
+  public int getId() {
+    return id;
+  }
+
+  //массив переиспользуется при следующем разборе
+  public int[] getPoints() {
+    return points;
+  }
+
+  //позиции токена id в последней разобранной строке, нужны для сообщения об ошибке
+  public int getIdStart() {
+    return idStart;
+  }
+
+  public int getIdEnd() {
+    return idEnd;
+  }
+
+  private static boolean isWhitespace(char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean isWordChar(char c) {
+    return isDigit(c) || c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c == '_';
+  }
+}
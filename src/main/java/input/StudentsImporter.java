@@ -0,0 +1,148 @@
+package input;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import db.TempStudentStorage;
+import enums.Command;
+import metrics.Metrics;
+import validation.CredentialsValidationResult;
+import validation.CredentialsValidator;
+
+//построчный импорт студентов из файла: в памяти держится только текущая строка и счетчики
+public class StudentsImporter {
+
+  private static final int BUFFER_SIZE = 1 << 16;
+  //строка с данными студента длиннее этого заведомо некорректна и целиком не читается
+  private static final int MAX_LINE_LENGTH = 1 << 12;
+  public static final String EMAIL_TAKEN = "This email is already taken.";
+  public static final String STUDENT_ADDED = "The student has been added.";
+  public static final String INVALID_ENCODING = "Line is not valid UTF-8.";
+  public static final String TOO_LONG = "Line is too long.";
+
+  private final CredentialsValidator credentialsValidator = new CredentialsValidator();
+
+  //строки файла: "имя,фамилия,email" (CSV), те же поля через табуляцию (TSV)
+  //или строка в формате "add students"; пустые строки, строки с '#' и заголовок пропускаются.
+  //Поле CSV в кавычках может содержать запятые, кавычка внутри него удваивается.
+  //Если файл перестал читаться на середине, добавленные студенты остаются, а отчет хранит
+  //ошибку, см. ImportReport.getFailure
+  public ImportReport importStudents(Path file) throws IOException {
+    ImportReport report = new ImportReport();
+    try (InputStream input = Files.newInputStream(file)) {
+      LineReader reader = new LineReader(input, BUFFER_SIZE, MAX_LINE_LENGTH);
+      long lineNumber = 0;
+      boolean isFirstRecord = true;
+      try {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          lineNumber++;
+          long started = Metrics.startTimer();
+          if (reader.isTruncated()) {
+            reject(report, TOO_LONG, lineNumber, started);
+            isFirstRecord = false;
+            continue;
+          }
+          line = line.trim();
+          if (line.isEmpty() || line.charAt(0) == '#') {
+            continue;
+          }
+          //некорректные байты заменены при чтении на U+FFFD
+          if (line.indexOf('\uFFFD') >= 0) {
+            reject(report, INVALID_ENCODING, lineNumber, started);
+            isFirstRecord = false;
+            continue;
+          }
+          String credentials = toCredentials(line);
+          CredentialsValidationResult result = credentialsValidator.validate(credentials);
+          if (isFirstRecord && !result.isValid() && isHeader(credentials)) {
+            isFirstRecord = false;
+            continue;
+          }
+          isFirstRecord = false;
+          if (!result.isValid()) {
+            reject(report, result.getError().getMessage(), lineNumber, started);
+          } else if (!TempStudentStorage.addStudent(result.getStudent())) {
+            reject(report, EMAIL_TAKEN, lineNumber, started);
+          } else {
+            report.accept();
+            Metrics.recordLine(Command.IMPORT_STUDENTS, STUDENT_ADDED, started);
+          }
+        }
+      } catch (IOException e) {
+        report.fail(e, lineNumber);
+      }
+    }
+    return report;
+  }
+
+  //исход строки попадает в метрики с задержкой ее обработки, без чтения файла
+  private static void reject(ImportReport report, String reason, long lineNumber, long started) {
+    report.reject(reason, lineNumber);
+    Metrics.recordLine(Command.IMPORT_STUDENTS, reason, started);
+  }
+
+  private String toCredentials(String line) {
+    char delimiter;
+    if (line.indexOf('\t') >= 0) {
+      delimiter = '\t';
+    } else if (line.indexOf(',') >= 0) {
+      delimiter = ',';
+    } else {
+      return line;
+    }
+    StringBuilder credentials = new StringBuilder(line.length());
+    StringBuilder field = new StringBuilder();
+    int position = 0;
+    while (position <= line.length()) {
+      position = readField(line, position, delimiter, field);
+      if (credentials.length() > 0) {
+        credentials.append(' ');
+      }
+      credentials.append(field.toString().trim());
+      position++;
+    }
+    return credentials.toString();
+  }
+
+  //читает поле, начинающееся с позиции start, в field и возвращает позицию разделителя
+  //после него или конец строки; в поле в кавычках разделитель - часть значения
+  private int readField(String line, int start, char delimiter, StringBuilder field) {
+    field.setLength(0);
+    int position = start;
+    while (position < line.length() && line.charAt(position) == ' ') {
+      position++;
+    }
+    if (position == line.length() || line.charAt(position) != '"') {
+      int end = line.indexOf(delimiter, start);
+      end = end < 0 ? line.length() : end;
+      field.append(line, start, end);
+      return end;
+    }
+    position++;
+    while (position < line.length()) {
+      char c = line.charAt(position++);
+      if (c != '"') {
+        field.append(c);
+      } else if (position < line.length() && line.charAt(position) == '"') {
+        field.append('"');
+        position++;
+      } else {
+        break;
+      }
+    }
+    //после закрывающей кавычки остаток до разделителя добавляется как есть
+    int end = line.indexOf(delimiter, position);
+    end = end < 0 ? line.length() : end;
+    field.append(line, position, end);
+    return end;
+  }
+
+  //заголовок - первая запись, которая не прошла проверку и заканчивается на "email";
+  //адрес в домене .email проверку проходит и заголовком не считается
+  private boolean isHeader(String credentials) {
+    return credentials.regionMatches(true, credentials.length() - "email".length(), "email", 0,
+        "email".length());
+  }
+}
@@ -1,19 +1,61 @@
 package input;
 
-import java.util.Scanner;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 
 public class UserInputService {
 
-  private Scanner scanner;
+  private final LineReader reader;
+  private final PointsParser pointsParser = new PointsParser();
+  //строка, прочитанная заранее в hasInput()
+  private String nextLine;
+  //вызывается перед ожиданием ввода, которого еще нет, например чтобы сбросить вывод
+  private Runnable onIdle = () -> { };
 
   public UserInputService() {
-    scanner = new Scanner(System.in);
+    this(System.in);
+  }
+
+  //ввод отдельного клиента, например сокета
+  public UserInputService(InputStream input) {
+    reader = new LineReader(input, LineReader.DEFAULT_BUFFER_SIZE);
   }
 
   public String getStringInput() {
-    if (scanner.hasNextLine()) {
-      return scanner.nextLine().trim();
+    if (hasInput()) {
+      String line = nextLine;
+      nextLine = null;
+      return line.trim();
     }
     return "";
   }
+
+  //следующая строка, разобранная как баллы студента
+  public PointsLine getPointsInput() {
+    return PointsLine.parse(getStringInput(), pointsParser);
+  }
+
+  public void setOnIdle(Runnable onIdle) {
+    this.onIdle = onIdle;
+  }
+
+  protected void onIdle() {
+    onIdle.run();
+  }
+
+  //false, если ввод закончился
+  public boolean hasInput() {
+    if (nextLine == null) {
+      if (!reader.hasBufferedLine()) {
+        onIdle();
+      }
+      try {
+        nextLine = reader.readLine();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    return nextLine != null;
+  }
 }
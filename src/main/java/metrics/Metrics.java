@@ -0,0 +1,214 @@
+package metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import enums.Command;
+
+//счетчики, выделение памяти и гистограммы задержек по командам и по исходам строк ввода
+//(например "Incorrect email."). Пока метрики выключены, точки записи только читают флаг
+public class Metrics {
+
+  public static final String OBJECT_NAME = "tracker:type=Metrics";
+
+  private static volatile boolean isEnabled;
+  private static final com.sun.management.ThreadMXBean ALLOCATION = allocationBean();
+  private static final Map<Command, CommandMetrics> commands = new ConcurrentHashMap<>();
+  private static final Map<Command, Map<String, LatencyHistogram>> outcomes =
+      new ConcurrentHashMap<>();
+
+  private static class CommandMetrics {
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLong allocatedBytes = new AtomicLong();
+  }
+
+  //счетчик выделенной потоком памяти есть не во всех JVM
+  private static com.sun.management.ThreadMXBean allocationBean() {
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    if (threads instanceof com.sun.management.ThreadMXBean allocation
+        && allocation.isThreadAllocatedMemorySupported()) {
+      return allocation;
+    }
+    return null;
+  }
+
+  public static boolean isEnabled() {
+    return isEnabled;
+  }
+
+  public static void setEnabled(boolean enabled) {
+    isEnabled = enabled;
+  }
+
+  //0, если метрики выключены; передается в recordCommand или recordLine
+  public static long startTimer() {
+    return isEnabled ? System.nanoTime() : 0;
+  }
+
+  public static long allocatedBytes() {
+    return isEnabled && ALLOCATION != null ? ALLOCATION.getCurrentThreadAllocatedBytes() : 0;
+  }
+
+  //время с started или 0, если замер не начат
+  public static long elapsed(long started) {
+    return started == 0 ? 0 : System.nanoTime() - started;
+  }
+
+  //сдвигает начало замера started на время паузы, начатой замером paused, например ожидания
+  //ввода: пауза в задержку команды не входит
+  public static long resumeTimer(long started, long paused) {
+    return started == 0 || paused == 0 ? started : started + System.nanoTime() - paused;
+  }
+
+  //то же для памяти, выделенной за паузу, см. allocatedBytes
+  public static long resumeAllocation(long allocated, long paused) {
+    return allocated == 0 || paused == 0 ? allocated
+        : allocated + ALLOCATION.getCurrentThreadAllocatedBytes() - paused;
+  }
+
+  public static void recordCommand(Command command, long started, long allocated) {
+    if (!isEnabled || started == 0) {
+      return;
+    }
+    long elapsed = System.nanoTime() - started;
+    CommandMetrics metrics = commands.computeIfAbsent(command, key -> new CommandMetrics());
+    metrics.latency.record(elapsed);
+    if (allocated != 0) {
+      metrics.allocatedBytes.addAndGet(ALLOCATION.getCurrentThreadAllocatedBytes() - allocated);
+    }
+  }
+
+  //обработка одной строки ввода команды command, закончившаяся исходом outcome
+  public static void recordLine(Command command, String outcome, long started) {
+    if (!isEnabled || started == 0) {
+      return;
+    }
+    long elapsed = System.nanoTime() - started;
+    Map<String, LatencyHistogram> commandOutcomes = outcomes.get(command);
+    if (commandOutcomes == null) {
+      commandOutcomes = outcomes.computeIfAbsent(command, key -> new ConcurrentHashMap<>());
+    }
+    LatencyHistogram latency = commandOutcomes.get(outcome);
+    if (latency == null) {
+      latency = commandOutcomes.computeIfAbsent(outcome, key -> new LatencyHistogram());
+    }
+    latency.record(elapsed);
+  }
+
+  public static void reset() {
+    commands.clear();
+    outcomes.clear();
+  }
+
+  public static String getReport() {
+    StringBuilder report = new StringBuilder();
+    report.append(String.format("%-36s %9s %10s %10s %10s %12s%n", "Command", "count", "p50 us",
+        "p99 us", "max us", "alloc KB/op"));
+    for (Command command : Command.values()) {
+      CommandMetrics metrics = commands.get(command);
+      if (metrics != null) {
+        LatencyHistogram latency = metrics.latency;
+        report.append(String.format("%-36s %9d %10.1f %10.1f %10.1f %12.1f%n",
+            command.getDescription(), latency.getCount(), micros(latency, 50),
+            micros(latency, 99), latency.getMax() / 1000.0,
+            metrics.allocatedBytes.get() / 1024.0 / latency.getCount()));
+      }
+    }
+    report.append(String.format("%-36s %9s %10s %10s %10s %12s%n", "Line outcome", "count",
+        "p50 us", "p99 us", "max us", "lines/s"));
+    for (Command command : Command.values()) {
+      Map<String, LatencyHistogram> commandOutcomes = outcomes.get(command);
+      if (commandOutcomes == null) {
+        continue;
+      }
+      commandOutcomes.keySet().stream().sorted().forEach(outcome -> {
+        LatencyHistogram latency = commandOutcomes.get(outcome);
+        report.append(String.format("%-36s %9d %10.1f %10.1f %10.1f %12d%n",
+            command.getDescription() + ": " + outcome, latency.getCount(), micros(latency, 50),
+            micros(latency, 99), latency.getMax() / 1000.0,
+            latency.getCount() * 1_000_000_000L / Math.max(latency.getTotal(), 1)));
+      });
+    }
+    return report.toString();
+  }
+
+  private static double micros(LatencyHistogram latency, double percentile) {
+    return latency.getValueAtPercentile(percentile) / 1000.0;
+  }
+
+  public static void registerMBean() throws JMException {
+    ObjectName name = new ObjectName(OBJECT_NAME);
+    if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+      ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(), name);
+    }
+  }
+
+  private static Map<String, Long> byCommand(ToLongFunction<CommandMetrics> value) {
+    Map<String, Long> result = new LinkedHashMap<>();
+    for (Command command : Command.values()) {
+      CommandMetrics metrics = commands.get(command);
+      if (metrics != null) {
+        result.put(command.getDescription(), value.applyAsLong(metrics));
+      }
+    }
+    return result;
+  }
+
+  private static class Bean implements MetricsMXBean {
+
+    @Override
+    public boolean isEnabled() {
+      return Metrics.isEnabled();
+    }
+
+    @Override
+    public void setEnabled(boolean isEnabled) {
+      Metrics.setEnabled(isEnabled);
+    }
+
+    @Override
+    public Map<String, Long> getCommandCounts() {
+      return byCommand(metrics -> metrics.latency.getCount());
+    }
+
+    @Override
+    public Map<String, Long> getCommandP99Nanos() {
+      return byCommand(metrics -> metrics.latency.getValueAtPercentile(99));
+    }
+
+    @Override
+    public Map<String, Long> getCommandAllocatedBytes() {
+      return byCommand(metrics -> metrics.allocatedBytes.get());
+    }
+
+    @Override
+    public Map<String, Long> getOutcomeCounts() {
+      Map<String, Long> result = new LinkedHashMap<>();
+      for (Command command : Command.values()) {
+        Map<String, LatencyHistogram> commandOutcomes = outcomes.get(command);
+        if (commandOutcomes != null) {
+          commandOutcomes.forEach((outcome, latency) ->
+              result.put(command.getDescription() + ": " + outcome, latency.getCount()));
+        }
+      }
+      return result;
+    }
+
+    @Override
+    public String getReport() {
+      return Metrics.getReport();
+    }
+
+    @Override
+    public void reset() {
+      Metrics.reset();
+    }
+  }
+}
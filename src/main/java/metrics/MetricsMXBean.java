@@ -0,0 +1,23 @@
+package metrics;
+
+import java.util.Map;
+
+//метрики команд в JMX, объект tracker:type=Metrics
+public interface MetricsMXBean {
+
+  boolean isEnabled();
+
+  void setEnabled(boolean isEnabled);
+
+  Map<String, Long> getCommandCounts();
+
+  Map<String, Long> getCommandP99Nanos();
+
+  Map<String, Long> getCommandAllocatedBytes();
+
+  Map<String, Long> getOutcomeCounts();
+
+  String getReport();
+
+  void reset();
+}
@@ -0,0 +1,34 @@
+package notification;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+//каждое сообщение - файл <id>.eml в каталоге; повторная доставка перезаписывает тот же файл
+public class EmlDirectorySink implements NotificationSink {
+
+  private final Path directory;
+
+  public EmlDirectorySink(Path directory) throws IOException {
+    this.directory = Files.createDirectories(directory);
+  }
+
+  @Override
+  public void deliver(List<Message> batch) throws IOException {
+    for (Message message : batch) {
+      String eml = "To: " + message.getTo() + "\r\n"
+          + "Subject: " + message.getSubject() + "\r\n"
+          + "Message-ID: <" + message.getId() + "@learning-progress-tracker>\r\n"
+          + "Content-Type: text/plain; charset=UTF-8\r\n"
+          + "\r\n"
+          + message.getBody() + "\r\n";
+      Path file = directory.resolve(message.getId() + ".eml");
+      Path temp = directory.resolve(message.getId() + ".eml.tmp");
+      Files.write(temp, eml.getBytes(StandardCharsets.UTF_8));
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+  }
+}
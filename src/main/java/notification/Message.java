@@ -0,0 +1,32 @@
+package notification;
+
+public class Message {
+
+  private final long id;
+  private final String to;
+  private final String subject;
+  private final String body;
+
+  public Message(long id, String to, String subject, String body) {
+    this.id = id;
+    this.to = to;
+    this.subject = subject;
+    this.body = body;
+  }
+
+  public long getId() {
+    return id;
+  }
+
+  public String getTo() {
+    return to;
+  }
+
+  public String getSubject() {
+    return subject;
+  }
+
+  public String getBody() {
+    return body;
+  }
+}
@@ -0,0 +1,184 @@
+package notification;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+//доставляет сообщения из outbox в sink пачками: не больше concurrency пачек одновременно,
+//неудачная пачка повторяется с экспоненциальной задержкой, пока не будет доставлена
+public class NotificationDispatcher implements Closeable {
+
+  public static final int DEFAULT_BATCH_SIZE = 256;
+  public static final int DEFAULT_CONCURRENCY = 4;
+  private static final long INITIAL_BACKOFF_MILLIS = 100;
+  private static final long MAX_BACKOFF_MILLIS = 30_000;
+  private static final long CLOSE_TIMEOUT_MILLIS = 5_000;
+
+  //диспетчер приложения; null, если уведомления выводятся только в консоль
+  private static NotificationDispatcher current;
+
+  private final Outbox outbox;
+  private final NotificationSink sink;
+  private final int batchSize;
+  private final long initialBackoffMillis;
+  private final Semaphore inFlight;
+  private final ScheduledThreadPoolExecutor workers;
+  private final Thread reader;
+  private final AtomicLong submitted = new AtomicLong();
+  private final AtomicLong delivered = new AtomicLong();
+  private final AtomicLong batches = new AtomicLong();
+  private final AtomicLong failedAttempts = new AtomicLong();
+  private volatile boolean isClosed;
+
+  public NotificationDispatcher(Outbox outbox, NotificationSink sink, int concurrency,
+      int batchSize, long initialBackoffMillis) {
+    this.outbox = outbox;
+    this.sink = sink;
+    this.batchSize = batchSize;
+    this.initialBackoffMillis = initialBackoffMillis;
+    inFlight = new Semaphore(concurrency);
+    workers = new ScheduledThreadPoolExecutor(concurrency, task -> {
+      Thread thread = new Thread(task, "notification-worker");
+      thread.setDaemon(true);
+      return thread;
+    });
+    workers.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    reader = new Thread(this::dispatch, "notification-dispatcher");
+    reader.setDaemon(true);
+    reader.start();
+  }
+
+  //outbox в каталоге directory, письма - файлами .eml в directory/mail
+  public static NotificationDispatcher open(Path directory) throws IOException {
+    current = new NotificationDispatcher(Outbox.open(directory),
+        new EmlDirectorySink(directory.resolve("mail")), DEFAULT_CONCURRENCY,
+        DEFAULT_BATCH_SIZE, INITIAL_BACKOFF_MILLIS);
+    return current;
+  }
+
+  public static NotificationDispatcher getCurrent() {
+    return current;
+  }
+
+  public static void closeCurrent() throws IOException {
+    if (current != null) {
+      current.close();
+      current = null;
+    }
+  }
+
+  public void submit(String to, String subject, String body) throws IOException {
+    outbox.append(to, subject, body);
+    submitted.incrementAndGet();
+  }
+
+  //сообщения, отправленные до вызова, сохраняются и передаются на доставку
+  public void flush() throws IOException {
+    outbox.flush();
+  }
+
+  //ошибка чтения outbox не останавливает доставку: чтение повторяется с той же задержкой,
+  //что и доставка неудачной пачки
+  private void dispatch() {
+    int attempt = 0;
+    try {
+      while (!isClosed) {
+        inFlight.acquire();
+        List<Message> batch;
+        try {
+          batch = outbox.take(batchSize);
+        } catch (IOException e) {
+          inFlight.release();
+          failedAttempts.incrementAndGet();
+          if (isClosed) {
+            break;
+          }
+          System.err.println("Failed to read notification outbox: " + e);
+          Thread.sleep(backoff(attempt++));
+          continue;
+        }
+        attempt = 0;
+        if (batch.isEmpty()) {
+          inFlight.release();
+          break;
+        }
+        workers.execute(() -> deliver(batch, 0));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void deliver(List<Message> batch, int attempt) {
+    try {
+      sink.deliver(batch);
+      delivered.addAndGet(batch.size());
+      batches.incrementAndGet();
+      outbox.acknowledge(batch.get(0).getId(), batch.get(batch.size() - 1).getId());
+      inFlight.release();
+    } catch (IOException | RuntimeException e) {
+      failedAttempts.incrementAndGet();
+      if (isClosed) {
+        inFlight.release();
+        return;
+      }
+      workers.schedule(() -> deliver(batch, attempt + 1), backoff(attempt),
+          TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private long backoff(int attempt) {
+    return Math.min(initialBackoffMillis << Math.min(attempt, 20), MAX_BACKOFF_MILLIS);
+  }
+
+  //ждет доставки всех сообщений, отправленных до вызова flush(); false, если время вышло
+  public boolean awaitDelivered(long timeoutMillis) throws InterruptedException {
+    return outbox.awaitDelivered(timeoutMillis);
+  }
+
+  public long getSubmitted() {
+    return submitted.get();
+  }
+
+  public long getDelivered() {
+    return delivered.get();
+  }
+
+  public long getBatches() {
+    return batches.get();
+  }
+
+  public long getFailedAttempts() {
+    return failedAttempts.get();
+  }
+
+  public long getPending() {
+    return outbox.getPending();
+  }
+
+  //дает доставке завершиться; оставшиеся сообщения будут доставлены после перезапуска
+  @Override
+  public void close() throws IOException {
+    try {
+      outbox.flush();
+      outbox.awaitDelivered(CLOSE_TIMEOUT_MILLIS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      isClosed = true;
+      reader.interrupt();
+      workers.shutdown();
+      try {
+        workers.awaitTermination(CLOSE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      outbox.close();
+    }
+  }
+}
@@ -0,0 +1,11 @@
+package notification;
+
+import java.io.IOException;
+import java.util.List;
+
+//получатель пачек уведомлений; при ошибке пачка будет доставлена повторно,
+//поэтому доставка должна быть идемпотентной по id сообщения
+public interface NotificationSink {
+
+  void deliver(List<Message> batch) throws IOException;
+}
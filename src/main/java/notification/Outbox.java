@@ -0,0 +1,201 @@
+package notification;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+//исходящие уведомления на диске: outbox.log - записи [int длина][long id][to][subject][body],
+//outbox.ack - id, до которого (не включая) все сообщения доставлены.
+//После перезапуска недоставленные сообщения отдаются повторно (доставка хотя бы один раз)
+public class Outbox implements Closeable {
+
+  private static final int BUFFER_SIZE = 1 << 16;
+  private static final int READ_SIZE = 1 << 18;
+
+  private final FileChannel log;
+  private final FileChannel ack;
+  private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(BUFFER_SIZE);
+  private final DataOutputStream output = new DataOutputStream(buffer);
+  private final ByteArrayOutputStream record = new ByteArrayOutputStream();
+  private final DataOutputStream recordOutput = new DataOutputStream(record);
+  //id следующего добавляемого сообщения
+  private long nextId;
+  //конец записанной на диск части лога
+  private long writePosition;
+  //следующее сообщение, которое еще не выдавалось на доставку
+  private long readPosition;
+  //все сообщения с id меньше watermark доставлены
+  private long watermark;
+  //доставленные диапазоны id за watermark: первый id -> последний id
+  private final Map<Long, Long> deliveredRanges = new TreeMap<>();
+  private boolean isClosed;
+
+  private Outbox(FileChannel log, FileChannel ack) {
+    this.log = log;
+    this.ack = ack;
+  }
+
+  public static Outbox open(Path directory) throws IOException {
+    Files.createDirectories(directory);
+    Outbox outbox = new Outbox(
+        FileChannel.open(directory.resolve("outbox.log"), StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE),
+        FileChannel.open(directory.resolve("outbox.ack"), StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE));
+    outbox.recover();
+    return outbox;
+  }
+
+  //находит первое недоставленное сообщение и конец лога; недописанный хвост отрезается
+  private void recover() throws IOException {
+    ByteBuffer ackValue = ByteBuffer.allocate(Long.BYTES);
+    ack.read(ackValue, 0);
+    watermark = ackValue.position() == Long.BYTES ? ackValue.getLong(0) : 0;
+    nextId = watermark;
+    readPosition = -1;
+    long position = 0;
+    long size = log.size();
+    ByteBuffer header = ByteBuffer.allocate(Integer.BYTES + Long.BYTES);
+    while (position + header.capacity() <= size) {
+      header.clear();
+      log.read(header, position);
+      int length = header.getInt(0);
+      long id = header.getLong(Integer.BYTES);
+      if (length < Long.BYTES || position + Integer.BYTES + length > size) {
+        break;
+      }
+      if (readPosition < 0 && id >= watermark) {
+        readPosition = position;
+      }
+      nextId = Math.max(nextId, id + 1);
+      position += Integer.BYTES + length;
+    }
+    log.truncate(position);
+    writePosition = position;
+    if (readPosition < 0) {
+      readPosition = position;
+    }
+  }
+
+  public synchronized long append(String to, String subject, String body) throws IOException {
+    long id = nextId++;
+    record.reset();
+    recordOutput.writeLong(id);
+    recordOutput.writeUTF(to);
+    recordOutput.writeUTF(subject);
+    recordOutput.writeUTF(body);
+    output.writeInt(record.size());
+    record.writeTo(output);
+    if (buffer.size() >= BUFFER_SIZE) {
+      writeBuffer();
+    }
+    return id;
+  }
+
+  private void writeBuffer() throws IOException {
+    ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+    while (bytes.hasRemaining()) {
+      writePosition += log.write(bytes, writePosition);
+    }
+    buffer.reset();
+    notifyAll();
+  }
+
+  //сохраняет добавленные сообщения на диск и делает их доступными для доставки
+  public synchronized void flush() throws IOException {
+    writeBuffer();
+    log.force(false);
+  }
+
+  //ждет сохраненные сообщения и выдает до max штук подряд;
+  //пустой список означает, что outbox закрыт
+  public synchronized List<Message> take(int max) throws IOException, InterruptedException {
+    while (readPosition == writePosition && !isClosed) {
+      wait();
+    }
+    List<Message> batch = new ArrayList<>();
+    if (isClosed) {
+      return batch;
+    }
+    int chunkSize = (int) Math.min(READ_SIZE, writePosition - readPosition);
+    ByteBuffer chunk = ByteBuffer.allocate(chunkSize);
+    while (chunk.hasRemaining()) {
+      log.read(chunk, readPosition + chunk.position());
+    }
+    chunk.flip();
+    while (batch.size() < max && chunk.remaining() >= Integer.BYTES) {
+      int length = chunk.getInt(chunk.position());
+      if (chunk.remaining() < Integer.BYTES + length) {
+        break;
+      }
+      DataInputStream record = new DataInputStream(new ByteArrayInputStream(chunk.array(),
+          chunk.position() + Integer.BYTES, length));
+      batch.add(new Message(record.readLong(), record.readUTF(), record.readUTF(),
+          record.readUTF()));
+      chunk.position(chunk.position() + Integer.BYTES + length);
+      readPosition += Integer.BYTES + length;
+    }
+    return batch;
+  }
+
+  //отмечает доставленными сообщения с id от first до last включительно
+  public synchronized void acknowledge(long first, long last) throws IOException {
+    if (isClosed) {
+      return;
+    }
+    deliveredRanges.put(first, last);
+    Long rangeEnd;
+    while ((rangeEnd = deliveredRanges.remove(watermark)) != null) {
+      watermark = rangeEnd + 1;
+    }
+    ack.write(ByteBuffer.allocate(Long.BYTES).putLong(0, watermark), 0);
+    //все доставлено: лог начинается заново, чтобы не расти бесконечно
+    if (watermark == nextId && readPosition == writePosition && buffer.size() == 0) {
+      log.truncate(0);
+      writePosition = 0;
+      readPosition = 0;
+    }
+    notifyAll();
+  }
+
+  public synchronized long getPending() {
+    return nextId - watermark;
+  }
+
+  //ждет, пока все добавленные сообщения будут доставлены; false, если время вышло
+  public synchronized boolean awaitDelivered(long timeoutMillis) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + timeoutMillis;
+    long left = timeoutMillis;
+    while (watermark < nextId && left > 0) {
+      wait(left);
+      left = deadline - System.currentTimeMillis();
+    }
+    return watermark >= nextId;
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (isClosed) {
+      return;
+    }
+    isClosed = true;
+    notifyAll();
+    writeBuffer();
+    log.force(false);
+    ack.force(false);
+    log.close();
+    ack.close();
+  }
+}
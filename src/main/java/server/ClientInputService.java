@@ -0,0 +1,33 @@
+package server;
+
+import java.io.InputStream;
+import input.UserInputService;
+import ui.OutputSink;
+
+//ввод клиента сервера: перед ожиданием строки накопленный вывод отправляется клиенту
+class ClientInputService extends UserInputService {
+
+  private final OutputSink output;
+
+  ClientInputService(InputStream input, OutputSink output) {
+    super(input);
+    this.output = output;
+  }
+
+  @Override
+  public String getStringInput() {
+    output.flush();
+    if (!hasInput()) {
+      throw new ClientDisconnectedException();
+    }
+    return super.getStringInput();
+  }
+
+  //клиент закрыл соединение; завершает его сессию
+  static class ClientDisconnectedException extends RuntimeException {
+
+    ClientDisconnectedException() {
+      super("Client has closed the connection", null, false, false);
+    }
+  }
+}
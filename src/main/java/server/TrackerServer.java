@@ -0,0 +1,110 @@
+package server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import server.ClientInputService.ClientDisconnectedException;
+import session.Session;
+import ui.BufferedOutputSink;
+import ui.NoTranscript;
+
+//TCP-сервер: каждый клиент получает свою сессию в отдельном виртуальном потоке.
+//Команды клиентов выполняются одновременно, хранилище рассчитано на конкурентный доступ.
+//Ошибка команды выводится клиенту и не закрывает его сессию
+public class TrackerServer implements Closeable {
+
+  private static final int CLIENT_BUFFER_SIZE = 1 << 16;
+
+  private final ServerSocket serverSocket;
+  private final ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+  private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+  private final Thread acceptor;
+
+  private TrackerServer(ServerSocket serverSocket) {
+    this.serverSocket = serverSocket;
+    acceptor = Thread.ofVirtual().name("tracker-acceptor").unstarted(this::acceptClients);
+  }
+
+  //port 0 - любой свободный порт, см. getPort()
+  public static TrackerServer start(int port) throws IOException {
+    TrackerServer server = new TrackerServer(
+        new ServerSocket(port, 50, InetAddress.getLoopbackAddress()));
+    server.acceptor.start();
+    return server;
+  }
+
+  public int getPort() {
+    return serverSocket.getLocalPort();
+  }
+
+  private void acceptClients() {
+    while (!serverSocket.isClosed()) {
+      try {
+        Socket socket = serverSocket.accept();
+        connections.add(socket);
+        clients.execute(() -> serve(socket));
+      } catch (SocketException e) {
+        //сервер закрыт
+        return;
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  private void serve(Socket socket) {
+    try (socket) {
+      BufferedOutputSink output = new BufferedOutputSink(socket.getOutputStream(),
+          StandardCharsets.UTF_8, CLIENT_BUFFER_SIZE);
+      Session session = new Session(
+          new ClientInputService(socket.getInputStream(), output), output);
+      session.getUi().setTranscript(new NoTranscript());
+      session.setCommandErrorHandler(e -> {
+        //обрыв соединения завершает сессию, остальные ошибки - только команду;
+        //если сообщение об ошибке не отправить, сессия тоже завершается
+        if (e instanceof ClientDisconnectedException) {
+          throw e;
+        }
+        System.err.println("Command of client " + socket.getRemoteSocketAddress()
+            + " failed: " + e);
+        output.print("Error: the command has failed, try again.\n");
+        output.flush();
+      });
+      try {
+        session.start();
+      } catch (ClientDisconnectedException e) {
+        return;
+      }
+      output.flush();
+    } catch (IOException | UncheckedIOException e) {
+      //соединение оборвано, сессия клиента завершается
+    } finally {
+      connections.remove(socket);
+    }
+  }
+
+  //закрывает прием и все соединения и ждет завершения сессий
+  @Override
+  public void close() throws IOException {
+    serverSocket.close();
+    for (Socket socket : connections) {
+      socket.close();
+    }
+    clients.shutdown();
+    try {
+      clients.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
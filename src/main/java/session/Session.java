@@ -1,25 +1,55 @@
 package session;
 
+import java.util.function.Consumer;
+import db.TempStudentStorage;
+import input.UserInputService;
 import ui.CommandLineUi;
 import ui.MainUi;
+import ui.OutputSink;
 
 public class Session {
 
   private CommandLineUi ui;
   private boolean isClosed;
+  //получает ошибку команды вместо того, чтобы завершить сессию; null - ошибка пробрасывается
+  private Consumer<RuntimeException> commandErrorHandler;
 
   public Session() {
     this.ui = new MainUi(this);
     isClosed = false;
   }
 
+  public Session(OutputSink output) {
+    this();
+    ui.setOutputSink(output);
+  }
+
+  //сессия отдельного клиента со своими вводом и выводом
+  public Session(UserInputService input, OutputSink output) {
+    this(output);
+    ui.setInputReader(input);
+  }
+
   public void start() {
     printTitle();
     do {
-      ui.showUi();
+      try {
+        ui.showUi();
+        //изменения, сделанные командой, сохраняются одним fsync
+        TempStudentStorage.syncJournal();
+      } catch (RuntimeException e) {
+        if (commandErrorHandler == null) {
+          throw e;
+        }
+        commandErrorHandler.accept(e);
+      }
     } while (!isClosed);
   }
 
+  public void setCommandErrorHandler(Consumer<RuntimeException> commandErrorHandler) {
+    this.commandErrorHandler = commandErrorHandler;
+  }
+
   public void close() {
     isClosed = true;
   }
@@ -34,7 +64,7 @@ public class Session {
 
   private String printTitle() {
     String title = "Learning Progress Tracker\n";
-    System.out.print(title);
+    ui.getOutputSink().print(title);
     return title;
   }
 }
@@ -0,0 +1,42 @@
+package ui;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+//вывод копится в большом буфере и записывается крупными блоками один раз на команду,
+//без синхронизации и сброса на каждой строке, как у System.out
+public class BufferedOutputSink implements OutputSink {
+
+  public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+  private final Writer writer;
+
+  public BufferedOutputSink(OutputStream output, Charset charset, int bufferSize) {
+    writer = new OutputStreamWriter(new BufferedOutputStream(output, bufferSize), charset);
+  }
+
+  @Override
+  public void print(String output) {
+    try {
+      writer.write(output);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void flush() {
+    //то, что уже выведено через System.out, должно оказаться раньше
+    System.out.flush();
+    try {
+      writer.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
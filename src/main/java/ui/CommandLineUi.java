@@ -1,6 +1,5 @@
 package ui;
 
-import java.util.StringJoiner;
 import input.UserInputService;
 import session.Session;
 
@@ -9,28 +8,48 @@ public abstract class CommandLineUi {
   protected UserInputService inputReader;
   protected Session session;
 
-  protected StringJoiner consoleOutput;
+  protected Transcript consoleOutput;
+  protected OutputSink output;
 
   protected CommandLineUi(Session session) {
     this.session = session;
-    this.inputReader = new UserInputService();
-    consoleOutput = new StringJoiner("\n");
+    this.output = new ConsoleOutputSink();
+    setInputReader(new UserInputService());
+    consoleOutput = new FullTranscript();
   }
 
   public String showUi() {
-    consoleOutput = new StringJoiner("\n");
-    processInput(inputReader.getStringInput());
+    consoleOutput.clear();
+    try {
+      processInput(inputReader.getStringInput());
+    } finally {
+      output.flush();
+    }
     return consoleOutput.toString();
   }
 
   public abstract void processInput(String input);
 
-  public StringJoiner getConsoleOutput() {
+  public Transcript getConsoleOutput() {
     return consoleOutput;
   }
 
+  public void setTranscript(Transcript consoleOutput) {
+    this.consoleOutput = consoleOutput;
+  }
+
+  //пока ввода нет, накопленный вывод сбрасывается, чтобы ответ был виден до следующей строки
   public void setInputReader(UserInputService inputReader) {
     this.inputReader = inputReader;
+    inputReader.setOnIdle(() -> output.flush());
+  }
+
+  public OutputSink getOutputSink() {
+    return output;
+  }
+
+  public void setOutputSink(OutputSink output) {
+    this.output = output;
   }
 
 
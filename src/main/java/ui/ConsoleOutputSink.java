@@ -0,0 +1,15 @@
+package ui;
+
+//вывод сразу в System.out, для интерактивной работы: подсказки видны до ввода
+public class ConsoleOutputSink implements OutputSink {
+
+  @Override
+  public void print(String output) {
+    System.out.print(output);
+  }
+
+  @Override
+  public void flush() {
+    System.out.flush();
+  }
+}
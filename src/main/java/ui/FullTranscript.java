@@ -0,0 +1,34 @@
+package ui;
+
+//весь вывод команды, для тестов
+public class FullTranscript implements Transcript {
+
+  private final StringBuilder output = new StringBuilder();
+  private boolean isEmpty = true;
+
+  @Override
+  public void add(String output) {
+    if (!isEmpty) {
+      this.output.append("\n");
+    }
+    isEmpty = false;
+    this.output.append(output);
+  }
+
+  @Override
+  public void append(String output) {
+    isEmpty = false;
+    this.output.append(output);
+  }
+
+  @Override
+  public void clear() {
+    output.setLength(0);
+    isEmpty = true;
+  }
+
+  @Override
+  public String toString() {
+    return output.toString();
+  }
+}
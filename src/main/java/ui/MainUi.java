@@ -1,5 +1,9 @@
 package ui;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
@@ -8,24 +12,56 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.StringJoiner;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntToDoubleFunction;
 import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
+import db.StatisticsSnapshot;
 import db.TempStudentStorage;
+import entities.CourseCatalog;
+import entities.CourseDefinition;
 import entities.Student;
 import entities.UnsavedStudent;
 import entities.subjects.AcademicSubject;
 import enums.Activity;
 import enums.Command;
-import enums.Course;
 import enums.Difficult;
+import enums.PointsParseResult;
+import input.ImportReport;
+import input.ImportReport.RejectReason;
+import input.PointsImporter;
+import input.PointsLine;
+import input.PointsParser;
+import input.StudentsImporter;
+import metrics.Metrics;
+import notification.NotificationDispatcher;
 import session.Session;
+import validation.CredentialsValidationResult;
+import validation.CredentialsValidator;
 
 public class MainUi extends CommandLineUi {
 
+  private static final int LIST_PAGE_SIZE = 100;
+  private static final int LIST_CHUNK_SIZE = 1 << 13;
+  //исходы строк ввода, по ним же ведутся метрики
+  private static final String STUDENT_ADDED = "The student has been added.";
+  private static final String EMAIL_TAKEN = "This email is already taken.";
+  private static final String POINTS_UPDATED = "Points updated.";
+  private static final String NO_STUDENT = "No student is found";
+  private static final String NOTIFICATION_SUBJECT = "Your Learning Progress";
+  private static final Pattern COURSE_TOP = Pattern.compile("^(.+?)\\s+top\\s+(\\d{1,9})$",
+      Pattern.CASE_INSENSITIVE);
+  private static final Pattern ID = Pattern.compile("\\d{1,9}");
+  private static final Pattern DIGITS = Pattern.compile("\\d+");
+
+  private final CredentialsValidator credentialsValidator = new CredentialsValidator();
+  private final PointsParser pointsParser = new PointsParser();
+  //замер выполняемой команды; сдвигается на время ожидания ввода, см. readInput
+  private long commandStarted;
+  private long commandAllocated;
+
   public MainUi(Session session) {
     super(session);
   }
@@ -34,14 +70,38 @@ public class MainUi extends CommandLineUi {
   public void processInput(String input) {
     if ("".equals(input)) {
       saveAndPrintOutput("No input.\n");
-    } else if (!Command.isCommand(input)) {
-      saveAndPrintOutput("Error: unknown command!\n");
     } else {
-      processCommand(Command.getByDescription(input));
+      Command command = Command.find(input);
+      if (command == null) {
+        saveAndPrintOutput("Error: unknown command!\n");
+      } else {
+        processCommand(command, command.getArguments(input));
+      }
     }
   }
 
   public void processCommand(Command command) {
+    processCommand(command, "");
+  }
+
+  public void processCommand(Command command, String arguments) {
+    commandStarted = Metrics.startTimer();
+    commandAllocated = Metrics.allocatedBytes();
+    runCommand(command, arguments);
+    Metrics.recordCommand(command, commandStarted, commandAllocated);
+  }
+
+  //строка ввода внутри команды; пока команда ждет ввод, ее замер остановлен
+  private String readInput() {
+    long paused = Metrics.startTimer();
+    long pausedAllocated = Metrics.allocatedBytes();
+    String input = inputReader.getStringInput().trim();
+    commandStarted = Metrics.resumeTimer(commandStarted, paused);
+    commandAllocated = Metrics.resumeAllocation(commandAllocated, pausedAllocated);
+    return input;
+  }
+
+  private void runCommand(Command command, String arguments) {
     switch (command) {
       case EXIT:
         session.close();
@@ -51,7 +111,7 @@ public class MainUi extends CommandLineUi {
         addStudents();
         break;
       case LIST:
-        showStudents();
+        showStudents(arguments);
         break;
       case ADD_POINTS:
         addPoints();
@@ -65,6 +125,18 @@ public class MainUi extends CommandLineUi {
       case NOTIFY:
         notifyStudents();
         break;
+      case IMPORT_STUDENTS:
+        importStudents(arguments);
+        break;
+      case IMPORT_POINTS:
+        importPoints(arguments);
+        break;
+      case SNAPSHOT:
+        takeSnapshot();
+        break;
+      case METRICS:
+        showMetrics();
+        break;
       default:
         saveAndPrintOutput("Enter 'exit' to exit the program.\n");
         break;
@@ -73,7 +145,7 @@ public class MainUi extends CommandLineUi {
 
   private void saveAndPrintOutput(String output) {
     consoleOutput.add(output);
-    System.out.print(output);
+    this.output.print(output);
   }
 
   private int addStudents() {
@@ -81,16 +153,22 @@ public class MainUi extends CommandLineUi {
     int numberAddedStudents = 0;
     boolean isBack = false;
     while (!isBack) {
-      String input = inputReader.getStringInput().trim();
+      String input = readInput();
       //проверяем, если ввод является командой и если это команда BACK, то выходим из процесса
-      if (Command.isCommand(input) && Command.getByDescription(input).equals(Command.BACK)) {
+      if (Command.find(input) == Command.BACK) {
         isBack = true;
-      } else if (!isCorrectCredentials(input)) {
         continue;
+      }
+      long started = Metrics.startTimer();
+      CredentialsValidationResult credentials = credentialsValidator.validate(input);
+      if (!credentials.isValid()) {
+        saveAndPrintOutput(credentials.getError().getMessage() + "\n");
+        Metrics.recordLine(Command.ADD_STUDENTS, credentials.getError().getMessage(), started);
+      } else if (registerStudent(credentials.getStudent())) {
+        numberAddedStudents++;
+        Metrics.recordLine(Command.ADD_STUDENTS, STUDENT_ADDED, started);
       } else {
-        if (registerStudent(input)) {
-          numberAddedStudents++;
-        }
+        Metrics.recordLine(Command.ADD_STUDENTS, EMAIL_TAKEN, started);
       }
     }
     saveAndPrintOutput("Total " + numberAddedStudents + " students have been added.\n");
@@ -98,143 +176,253 @@ public class MainUi extends CommandLineUi {
   }
 
   private boolean isAlreadyRegisteredStudent(String email) {
-    return TempStudentStorage.getStudents().stream()
-        .map(Student::getEmail)
-        .anyMatch(x -> x.equals(email));
+    return TempStudentStorage.isRegisteredEmail(email);
   }
 
+  //Перед использованием убедиться, что данные студента корректны
   private boolean registerStudent(String student) {
-    Pattern pattern = Pattern.compile("^(\\S+)\\s(.+)\\s(.+)$");
-    Matcher matcher = pattern.matcher(student);
-    matcher.find();
-    UnsavedStudent unsavedStudent = new UnsavedStudent(matcher.group(1), matcher.group(2),
-        matcher.group(3));
-    if (isAlreadyRegisteredStudent(unsavedStudent.getEmail())) {
-      saveAndPrintOutput("This email is already taken.\n");
+    return registerStudent(credentialsValidator.validate(student).getStudent());
+  }
+
+  private boolean registerStudent(UnsavedStudent unsavedStudent) {
+    if (!TempStudentStorage.addStudent(unsavedStudent)) {
+      saveAndPrintOutput(EMAIL_TAKEN + "\n");
       return false;
     }
-    TempStudentStorage.addStudent(unsavedStudent);
-    saveAndPrintOutput("The student has been added.\n");
+    saveAndPrintOutput(STUDENT_ADDED + "\n");
     return true;
   }
 
   private boolean isCorrectCredentials(String credentials) {
-    String credentialsPattern = "^(\\S+)\\s(.+)\\s(.+)$";
-    Pattern pattern = Pattern.compile(credentialsPattern);
-    Matcher matcher = pattern.matcher(credentials);
-    if (!matcher.find()) {
-      saveAndPrintOutput("Incorrect credentials.\n");
+    CredentialsValidationResult result = credentialsValidator.validate(credentials);
+    if (!result.isValid()) {
+      saveAndPrintOutput(result.getError().getMessage() + "\n");
       return false;
     }
-    if (!matcher.group(1).trim().matches("\\w+[\\-']?\\w+")) {
-      saveAndPrintOutput("Incorrect first name.\n");
-      return false;
+    return true;
+  }
+
+  private void importStudents(String file) {
+    if (file.isEmpty()) {
+      saveAndPrintOutput("Usage: import students <file>\n");
+      return;
     }
-    if (!matcher.group(2).trim().matches("(\\w+[\\-']?\\w+([\\-']?\\w+)?\\s?)+")) {
-      saveAndPrintOutput("Incorrect last name.\n");
-      return false;
+    ImportReport report;
+    try {
+      report = new StudentsImporter().importStudents(Path.of(file));
+    } catch (IOException | InvalidPathException e) {
+      saveAndPrintOutput("Cannot read file " + file + "\n");
+      return;
     }
-    if (!matcher.group(3).trim().matches("[\\w\\.]+@\\w+\\.\\w+")) {
-      saveAndPrintOutput("Incorrect email.\n");
-      return false;
+    saveAndPrintOutput("Total " + report.getAccepted() + " students have been added.\n");
+    printRejectReasons(report);
+    if (report.getFailure() != null) {
+      saveAndPrintOutput("Import stopped: cannot read file " + file + " after line "
+          + report.getFailedAfterLine() + "\n");
     }
-    return true;
   }
 
-  private void showStudents() {
-    List<Student> students = TempStudentStorage.getStudents();
-    if (students.size() == 0) {
-      saveAndPrintOutput("No students found\n");
+  private void printRejectReasons(ImportReport report) {
+    if (report.getRejected() == 0) {
       return;
     }
     StringBuilder output = new StringBuilder();
-    output.append("Students:\n");
-    students.forEach(
-        student -> output.append(Integer.valueOf(student.getId()).toString() + "\n"));
-
+    output.append("Rejected ").append(report.getRejected()).append(" lines:\n");
+    for (RejectReason reason : report.getRejectReasons()) {
+      output.append(reason.getMessage()).append(" - ").append(reason.getCount())
+          .append(" line(s), first at line ").append(reason.getFirstLine()).append("\n");
+    }
     saveAndPrintOutput(output.toString());
   }
 
-  private boolean isNumber(String number) {
-    try {
-      Integer.parseInt(number);
-    } catch (NumberFormatException e) {
-      return false;
+  private void takeSnapshot() {
+    if (TempStudentStorage.takeSnapshot() == null) {
+      saveAndPrintOutput("Snapshots are disabled, start with --journal and --snapshot.\n");
+    } else {
+      saveAndPrintOutput("Snapshot is being written in the background.\n");
+    }
+  }
+
+  //list, list <from> <to> (id включительно) или list page <n>;
+  //id выводятся частями по мере обхода, без сборки всего списка в памяти
+  private void showStudents(String arguments) {
+    List<Student> students = TempStudentStorage.getStudents();
+    String[] range = arguments.isEmpty() ? new String[0] : arguments.split("\\s+");
+    StudentsChunk chunk = new StudentsChunk();
+    if (range.length == 0) {
+      students.forEach(chunk::add);
+    } else if (range.length == 2 && "page".equalsIgnoreCase(range[0]) && isId(range[1])) {
+      int page = Integer.parseInt(range[1]);
+      long from = (long) (page - 1) * LIST_PAGE_SIZE;
+      for (long i = Math.max(from, 0); i < from + LIST_PAGE_SIZE && i < students.size(); i++) {
+        chunk.add(students.get((int) i));
+      }
+    } else if (range.length == 2 && isId(range[0]) && isId(range[1])) {
+      int from = Integer.parseInt(range[0]);
+      int to = Integer.parseInt(range[1]);
+      if ((long) to - from < students.size()) {
+        for (int id = Math.max(from, 1); id <= to; id++) {
+          TempStudentStorage.getStudentById(id).ifPresent(chunk::add);
+        }
+      } else {
+        students.stream().filter(student -> student.getId() >= from && student.getId() <= to)
+            .forEach(chunk::add);
+      }
+    } else {
+      saveAndPrintOutput("Usage: list [<from> <to> | page <n>]\n");
+      return;
+    }
+    chunk.finish();
+  }
+
+  private static boolean isId(String value) {
+    return ID.matcher(value).matches();
+  }
+
+  //копит id студентов и выводит их блоками по LIST_CHUNK_SIZE символов
+  private class StudentsChunk {
+
+    private final StringBuilder chunk = new StringBuilder(LIST_CHUNK_SIZE + 16);
+    private boolean isStarted;
+
+    private void add(Student student) {
+      if (!isStarted && chunk.length() == 0) {
+        chunk.append("Students:\n");
+      }
+      chunk.append(student.getId()).append('\n');
+      if (chunk.length() >= LIST_CHUNK_SIZE) {
+        print();
+      }
+    }
+
+    private void print() {
+      String text = chunk.toString();
+      if (isStarted) {
+        consoleOutput.append(text);
+      } else {
+        consoleOutput.add(text);
+        isStarted = true;
+      }
+      output.print(text);
+      chunk.setLength(0);
+    }
+
+    private void finish() {
+      if (!isStarted && chunk.length() == 0) {
+        saveAndPrintOutput("No students found\n");
+      } else if (chunk.length() > 0) {
+        print();
+      }
     }
-    return true;
   }
 
   private void addPoints() {
     saveAndPrintOutput("Enter an id and points or 'back' to return\n");
     boolean isBack = false;
     while (!isBack) {
-      String input = inputReader.getStringInput().trim();
-      if (Command.isCommand(input) && Command.getByDescription(input).equals(Command.BACK)) {
+      String input = readInput();
+      if (Command.find(input) == Command.BACK) {
         isBack = true;
         break;
-      } else if (!isCorrectPoints(input)) {
-        saveAndPrintOutput("Incorrect points format\n");
+      }
+      long started = Metrics.startTimer();
+      PointsLine line = PointsLine.parse(input, pointsParser);
+      if (line.getResult() == PointsParseResult.INCORRECT_FORMAT) {
+        saveAndPrintOutput(PointsImporter.INCORRECT_FORMAT + "\n");
+        Metrics.recordLine(Command.ADD_POINTS, PointsImporter.INCORRECT_FORMAT, started);
         continue;
       }
-
-      String[] idAndPoints = input.split("\\s+");
-      if (!isNumber(idAndPoints[0])) {
-        saveAndPrintOutput("No student is found for id=" + idAndPoints[0] + "\n");
+      if (line.getResult() == PointsParseResult.UNKNOWN_ID) {
+        saveAndPrintOutput(PointsImporter.UNKNOWN_ID + line.getIdText() + "\n");
+        Metrics.recordLine(Command.ADD_POINTS, NO_STUDENT, started);
         continue;
       }
 
-      int[] idAndPointsInfo = Arrays.stream(input.split("\\s+"))
-          .mapToInt(Integer::parseInt)
-          .toArray();
-
-      int studentId = idAndPointsInfo[0];
+      int studentId = line.getId();
       Optional<Student> foundStudent = TempStudentStorage.getStudentById(studentId);
 
       if (foundStudent.isEmpty()) {
-        saveAndPrintOutput("No student is found for id=" + studentId + "\n");
+        saveAndPrintOutput(PointsImporter.UNKNOWN_ID + studentId + "\n");
+        Metrics.recordLine(Command.ADD_POINTS, NO_STUDENT, started);
         continue;
       }
 
-      foundStudent.get().updatePoints(new int[]{1, 2, 3, 4},
-          Arrays.copyOfRange(idAndPointsInfo, 1, idAndPointsInfo.length));
-      saveAndPrintOutput("Points updated.\n");
+      foundStudent.get().addPoints(line.getPoints());
+      saveAndPrintOutput(POINTS_UPDATED + "\n");
+      Metrics.recordLine(Command.ADD_POINTS, POINTS_UPDATED, started);
     }
   }
 
   private boolean isCorrectPoints(String pointsInfo) {
-    String addPointsPattern = "^^(\\w+\\s)(\\d+\\s){3}\\d+$";
-    return pointsInfo.matches(addPointsPattern);
+    return pointsParser.parse(pointsInfo) != PointsParseResult.INCORRECT_FORMAT;
+  }
+
+  private void importPoints(String file) {
+    if (file.isEmpty()) {
+      saveAndPrintOutput("Usage: import points <file>\n");
+      return;
+    }
+    long start = System.nanoTime();
+    ImportReport report;
+    try {
+      report = new PointsImporter().importPoints(Path.of(file),
+          error -> saveAndPrintOutput(error + "\n"));
+    } catch (IOException | InvalidPathException e) {
+      saveAndPrintOutput("Cannot read file " + file + "\n");
+      return;
+    }
+    long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+    long lines = report.getAccepted() + report.getRejected();
+    saveAndPrintOutput("Points updated for " + report.getAccepted() + " lines.\n");
+    printRejectReasons(report);
+    saveAndPrintOutput("Processed " + lines + " lines in " + elapsedMillis + " ms ("
+        + lines * 1000 / elapsedMillis + " lines/s).\n");
   }
 
   private void findStudent() {
     saveAndPrintOutput("Enter an id or 'back' to return\n");
     boolean isBack = false;
     while (!isBack) {
-      String input = inputReader.getStringInput().trim();
-      if (Command.isCommand(input) && Command.getByDescription(input).equals(Command.BACK)) {
+      String input = readInput();
+      if (Command.find(input) == Command.BACK) {
         isBack = true;
         break;
-      } else if (!input.matches("^\\d+$")) {
+      }
+      long started = Metrics.startTimer();
+      if (!DIGITS.matcher(input).matches()) {
         saveAndPrintOutput("Incorrect id format\n");
+        Metrics.recordLine(Command.FIND, "Incorrect id format", started);
         continue;
       }
-      Optional<Student> foundStudent = TempStudentStorage.getStudentById(Integer.parseInt(input));
+      //id длиннее 9 цифр в int не помещается и выдан быть не мог
+      Optional<Student> foundStudent = isId(input)
+          ? TempStudentStorage.getStudentById(Integer.parseInt(input)) : Optional.empty();
 
       if (foundStudent.isEmpty()) {
         saveAndPrintOutput("No student is found for id=" + input + "\n");
+        Metrics.recordLine(Command.FIND, NO_STUDENT, started);
         continue;
       }
       Student student = foundStudent.get();
       StringBuilder output = new StringBuilder();
-      output.append(
-          student.getId() + " points: Java=" + student.getAcademicSubjects().get(0).getPoint());
-      output.append("; Dsa=" + student.getAcademicSubjects().get(1).getPoint());
-      output.append("; Databases=" + student.getAcademicSubjects().get(2).getPoint());
-      output.append("; Spring=" + student.getAcademicSubjects().get(3).getPoint());
+      output.append(student.getId()).append(" points: ");
+      for (int course = 0; course < Student.getCoursesCount(); course++) {
+        output.append(course == 0 ? "" : "; ").append(Student.getCourse(course).getLabel())
+            .append('=').append(student.getPoint(course));
+      }
       output.append("\n");
 
       saveAndPrintOutput(output.toString());
+      Metrics.recordLine(Command.FIND, "Student found", started);
+    }
+  }
+
+  private void showMetrics() {
+    if (!Metrics.isEnabled()) {
+      saveAndPrintOutput("Metrics are disabled, start with --metrics on.\n");
+      return;
     }
+    saveAndPrintOutput(Metrics.getReport());
   }
 
   private void getStatistics() {
@@ -242,25 +430,36 @@ public class MainUi extends CommandLineUi {
     printStatistics();
     boolean isBack = false;
     while (!isBack) {
-      String input = inputReader.getStringInput().trim();
-      if (Command.isCommand(input) && Command.getByDescription(input).equals(Command.BACK)) {
+      String input = readInput();
+      if (Command.find(input) == Command.BACK) {
         isBack = true;
         break;
-      } else if (!Course.isExistedCourse(input)) {
+      }
+      //"<курс> top <N>" выводит только первые N строк рейтинга
+      String subjectName = input;
+      int limit = Integer.MAX_VALUE;
+      Matcher top = COURSE_TOP.matcher(input);
+      if (top.matches()) {
+        subjectName = top.group(1);
+        limit = Integer.parseInt(top.group(2));
+      }
+      if (CourseCatalog.getCurrent().find(subjectName) == null) {
         saveAndPrintOutput("Unknown course\n");
         continue;
       }
-      saveAndPrintOutput(showSubjectStatistics(input) + "\n");
+      saveAndPrintOutput(showSubjectStatistics(subjectName, limit) + "\n");
     }
   }
 
+  //все показатели считаются по одному снимку агрегатов, даже если баллы в это время начисляются
   private void printStatistics() {
-    String mostPopular = getMostPopularSubject();
-    String leastPopular = getLeastPopularSubject();
-    String highestActivity = getRankedActivitySubject(Activity.HIGHEST);
-    String lowestActivity = getRankedActivitySubject(Activity.LOWEST);
-    String easiest = getRankedDifficultSubject(Difficult.EASY);
-    String hardest = getRankedDifficultSubject(Difficult.HARD);
+    StatisticsSnapshot statistics = TempStudentStorage.getStatistics().snapshot();
+    String mostPopular = getMostPopularSubject(statistics);
+    String leastPopular = getLeastPopularSubject(statistics);
+    String highestActivity = getRankedActivitySubject(statistics, Activity.HIGHEST);
+    String lowestActivity = getRankedActivitySubject(statistics, Activity.LOWEST);
+    String easiest = getRankedDifficultSubject(statistics, Difficult.EASY);
+    String hardest = getRankedDifficultSubject(statistics, Difficult.HARD);
 
     if (leastPopular.equals(mostPopular)) {
       leastPopular = "n/a";
@@ -300,160 +499,162 @@ public class MainUi extends CommandLineUi {
   }
 
 
-  private List<String> getRankedSubjectListByAveragePoints(List<Student> students,
-      Predicate<AcademicSubject> subjectFilter,
-      Collector<AcademicSubject, ?, Double> groupingSign) {
-    return students.stream()
-        .flatMap(student -> student.getAcademicSubjects().stream())
-        .filter(subjectFilter)
-        //группируем как предмет-количество ч-к
-        .collect(Collectors.groupingBy(AcademicSubject::getName, groupingSign))
-        .entrySet()
-        .stream()
-        //сортируем по значению
-        .sorted(Entry.<String, Double>comparingByValue().reversed()
-            .thenComparing(Entry.comparingByKey()))
-        .map(Entry::getKey)
-        .collect(Collectors.toList());
+  //курсы по убыванию показателя, при равенстве - по названию
+  private List<Integer> getRankedCourses(StatisticsSnapshot statistics,
+      IntToDoubleFunction courseValue) {
+    List<Integer> courses = new ArrayList<>();
+    for (int course = 0; course < statistics.getCoursesCount(); course++) {
+      courses.add(course);
+    }
+    courses.sort(Comparator.<Integer>comparingDouble(courseValue::applyAsDouble).reversed()
+        .thenComparing(statistics::getCourseName));
+    return courses;
   }
 
   private String getMostPopularSubject() {
+    return getMostPopularSubject(TempStudentStorage.getStatistics().snapshot());
+  }
+
+  private String getMostPopularSubject(StatisticsSnapshot statistics) {
     StringJoiner mostPopular = new StringJoiner(", ");
-    List<Map.Entry<String, Long>> popularSubjects = getRankedSubjectList(
-        TempStudentStorage.getStudents(), academicSubject -> academicSubject.getPoint() > 0,
-        Collectors.counting());
+    List<Integer> popularSubjects = getRankedCourses(statistics, statistics::getEnrolled);
+    long mostPopularNumber = statistics.getEnrolled(popularSubjects.get(0));
 
-    if (popularSubjects.size() == 0) {
+    if (mostPopularNumber == 0) {
       mostPopular.add("n/a");
     } else {
-      long mostPopularNumber = popularSubjects.get(0).getValue();
-      popularSubjects.stream().filter(x -> x.getValue() == mostPopularNumber)
-          .forEach(x -> mostPopular.add(x.getKey()));
+      popularSubjects.stream().filter(x -> statistics.getEnrolled(x) == mostPopularNumber)
+          .forEach(x -> mostPopular.add(statistics.getCourseName(x)));
     }
     return mostPopular.toString();
   }
 
   private String getLeastPopularSubject() {
+    return getLeastPopularSubject(TempStudentStorage.getStatistics().snapshot());
+  }
+
+  private String getLeastPopularSubject(StatisticsSnapshot statistics) {
     StringJoiner output = new StringJoiner(", ");
-    List<Map.Entry<String, Long>> rankedSubjects = getRankedSubjectList(
-        TempStudentStorage.getStudents(), academicSubject -> academicSubject.getPoint() > 0,
-        Collectors.counting());
-    if (rankedSubjects.size() == 0) {
+    List<Integer> rankedSubjects = getRankedCourses(statistics, statistics::getEnrolled);
+    long leastPopularNumber = statistics.getEnrolled(
+        rankedSubjects.get(rankedSubjects.size() - 1));
+    if (statistics.getEnrolled(rankedSubjects.get(0)) == 0) {
       output.add("n/a");
-    } else if (rankedSubjects.size() != 4) {
-      List<String> allSubjects = Arrays.stream(Course.nameValues()).collect(Collectors.toList());
-      allSubjects.removeAll(
-          rankedSubjects.stream().map(Entry::getKey).collect(Collectors.toList()));
-      allSubjects.forEach(x -> output.add(x));
-      //если не 4, то искомое = Все курсы - всё из ранкеда
+    } else if (leastPopularNumber == 0) {
+      //если есть курсы без студентов, то искомое - все такие курсы в порядке их id
+      for (int course = 0; course < statistics.getCoursesCount(); course++) {
+        if (statistics.getEnrolled(course) == 0) {
+          output.add(statistics.getCourseName(course));
+        }
+      }
     } else {
-      long leastPopularNumber = rankedSubjects.get(rankedSubjects.size() - 1).getValue();
-      List<String> leastPopularSubjects = rankedSubjects.stream()
-          .filter(x -> x.getValue() == leastPopularNumber).map(Entry::getKey)
-          .collect(Collectors.toList());
-      leastPopularSubjects.forEach(x -> output.add(x));
+      rankedSubjects.stream().filter(x -> statistics.getEnrolled(x) == leastPopularNumber)
+          .forEach(x -> output.add(statistics.getCourseName(x)));
     }
-    return output.toString().equals(getMostPopularSubject()) ? "n/a" : output.toString();
+    return output.toString().equals(getMostPopularSubject(statistics)) ? "n/a"
+        : output.toString();
   }
 
   private String getRankedActivitySubject(Activity activity) {
-    List<Map.Entry<String, Long>> rankedSubjectsList = getRankedSubjectList(
-        TempStudentStorage.getStudents(),
-        subject -> true, Collectors.summingLong(AcademicSubject::getPoint));
-    if (TempStudentStorage.getStudents().stream().filter(student -> student.isEnrolled()).count()
-        == 0) {
+    return getRankedActivitySubject(TempStudentStorage.getStatistics().snapshot(), activity);
+  }
+
+  private String getRankedActivitySubject(StatisticsSnapshot statistics, Activity activity) {
+    if (statistics.getEnrolledStudents() == 0) {
       return "n/a";
     }
+    List<Integer> rankedSubjectsList = getRankedCourses(statistics, statistics::getPoints);
     if (activity == Activity.LOWEST) {
-      return rankedSubjectsList.get(rankedSubjectsList.size() - 1).getKey();
+      return statistics.getCourseName(rankedSubjectsList.get(rankedSubjectsList.size() - 1));
     } else {
-
-      return rankedSubjectsList.get(0).getKey();
+      return statistics.getCourseName(rankedSubjectsList.get(0));
     }
   }
 
   private String getRankedDifficultSubject(Difficult difficult) {
-    List<String> rankedSubjectsList = getRankedSubjectListByAveragePoints(
-        TempStudentStorage.getStudents(), subject -> true,
-        Collectors.averagingLong(AcademicSubject::getPoint));
-    if (TempStudentStorage.getStudents().stream().filter(student -> student.isEnrolled()).count()
-        == 0) {
+    return getRankedDifficultSubject(TempStudentStorage.getStatistics().snapshot(), difficult);
+  }
+
+  private String getRankedDifficultSubject(StatisticsSnapshot statistics, Difficult difficult) {
+    if (statistics.getEnrolledStudents() == 0) {
       return "n/a";
     }
+    List<Integer> rankedSubjectsList = getRankedCourses(statistics,
+        statistics::getAveragePoints);
     if (difficult == Difficult.EASY) {
-      return rankedSubjectsList.get(0);
+      return statistics.getCourseName(rankedSubjectsList.get(0));
     } else {
-      return rankedSubjectsList.get(rankedSubjectsList.size() - 1);
+      return statistics.getCourseName(rankedSubjectsList.get(rankedSubjectsList.size() - 1));
     }
   }
 
   //Перед использованием убедиться, что имя предмета корректное
   private String showSubjectStatistics(String subjectName) {
-    List<String[]> studentStats = new ArrayList<>();
-    TempStudentStorage.getStudents()
-        .stream()
-        .forEach(student -> {
-          String id = Integer.toString(student.getId());
-          String[] stats = student.getAcademicSubjectStats(subjectName);
-          studentStats.add(new String[]{id, stats[1], stats[2]});
-        });
-    Comparator<String[]> comp = Comparator.<String[], Integer>comparing(
-            stat -> Integer.parseInt(stat[1])).reversed()
-        .thenComparing(stat -> Integer.parseInt(stat[1]));
-    Comparator<String[]> comp2 = comp;
-    Comparator<String[]> comps = Comparator.<String[], String>comparing(arr -> arr[1]).reversed()
-        .thenComparing(arr -> arr[1]);
-    studentStats.sort(comp);
+    return showSubjectStatistics(subjectName, Integer.MAX_VALUE);
+  }
 
-    StringJoiner output = new StringJoiner("\n");
-    output.add(Course.getCourseByName(subjectName).getName());
-    output.add(String.format("%-5s %-9s %-8s", "id", "points", "completed"));
-    studentStats.stream().filter(x -> !"0".equals(x[1]))
-        .forEach(arr -> output.add(String.format("%-5s %-9s %s", arr[0], arr[1], arr[2])));
+  //строки берутся из рейтинга курса, поэтому вывод первых limit строк стоит O(limit);
+  //рейтинг копируется вместе со снимком статистики, на тот же момент
+  private String showSubjectStatistics(String subjectName, int limit) {
+    CourseDefinition course = CourseCatalog.getCurrent().find(subjectName);
+    StringBuilder output = new StringBuilder();
+    output.append(course.getName()).append("\n");
+    output.append(String.format("%-5s %-9s %-8s", "id", "points", "completed"));
+    TempStudentStorage.getStatistics().snapshot(course.getId() - 1, limit).forEachTop(
+        (id, points) -> output.append("\n").append(String.format("%-5s %-9s %s", id, points,
+            Student.formatCompleted(points, course.getMaxPoints()))));
     return output.toString();
   }
 
+  //обходит только очередь новых уведомлений, а не всех студентов
   private void notifyStudents() {
-    saveAndPrintOutput(setNotification(getUnnotifiedStudents(TempStudentStorage.getStudents())));
-  }
-
-  private Map<Student, List<AcademicSubject>> getUnnotifiedStudents(List<Student> students) {
-    return students.stream()
-        .filter(Student::isEnrolled)
-        .collect(
-            Collectors.toMap(student -> student, student -> student.getAcademicSubjects().stream()
-                .filter(subject -> !subject.isNotified() && subject.getPoint() > 0).collect(
-                    Collectors.toList())));
-  }
-
-  private String setNotification(Map<Student, List<AcademicSubject>> unnotifiedStudents) {
+    NotificationDispatcher dispatcher = NotificationDispatcher.getCurrent();
+    if (dispatcher != null) {
+      sendNotifications(dispatcher);
+      return;
+    }
     StringBuilder notification = new StringBuilder();
-    AtomicInteger counter = new AtomicInteger(0);
-    unnotifiedStudents.forEach((k, v) -> {
-          if (v.size() != 0) {
-            counter.getAndIncrement();
-          }
-          v.forEach(subject -> {
-            notification.append("To: ");
-            notification.append(k.getEmail());
-            notification.append("\n");
-            notification.append("Re: Your Learning Progress");
-            notification.append("\n");
-            notification.append("Hello, ");
-            notification.append(k.getName());
-            notification.append(" ");
-            notification.append(k.getLastname());
-            notification.append("! You have accomplished our ");
-            notification.append(subject.getName());
-            notification.append(" course!\n");
-            subject.setNotify();
-          });
-        }
-    );
+    int notifiedStudents = TempStudentStorage.getNotifications().drain((student, course) -> {
+      notification.append("To: ");
+      notification.append(student.getEmail());
+      notification.append("\n");
+      notification.append("Re: ");
+      notification.append(NOTIFICATION_SUBJECT);
+      notification.append("\n");
+      notification.append(getNotificationText(student, course));
+      notification.append("\n");
+    });
     notification.append("Total ");
-    notification.append(unnotifiedStudents.isEmpty() ? 0 : counter);
+    notification.append(notifiedStudents);
     notification.append(" students have been notified.\n");
+    saveAndPrintOutput(notification.toString());
+  }
+
+  //сообщения пишутся в outbox и доставляются в фоне, в консоль выводится только итог
+  private void sendNotifications(NotificationDispatcher dispatcher) {
+    int notifiedStudents;
+    try {
+      notifiedStudents = TempStudentStorage.getNotifications().drain((student, course) -> {
+        try {
+          dispatcher.submit(student.getEmail(), NOTIFICATION_SUBJECT,
+              getNotificationText(student, course));
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+      dispatcher.flush();
+    } catch (IOException | UncheckedIOException e) {
+      saveAndPrintOutput("Cannot write notifications to the outbox.\n");
+      return;
+    }
+    saveAndPrintOutput("Total " + notifiedStudents + " students have been notified.\n");
+    saveAndPrintOutput("Outbox: " + dispatcher.getDelivered() + " delivered, "
+        + dispatcher.getPending() + " pending, " + dispatcher.getFailedAttempts()
+        + " failed attempts.\n");
+  }
 
-    return notification.toString();
+  private static String getNotificationText(Student student, int course) {
+    return "Hello, " + student.getName() + " " + student.getLastname()
+        + "! You have accomplished our " + Student.getCourse(course).getName() + " course!";
   }
 }
@@ -0,0 +1,22 @@
+package ui;
+
+//вывод не сохраняется
+public class NoTranscript implements Transcript {
+
+  @Override
+  public void add(String output) {
+  }
+
+  @Override
+  public void append(String output) {
+  }
+
+  @Override
+  public void clear() {
+  }
+
+  @Override
+  public String toString() {
+    return "";
+  }
+}
@@ -0,0 +1,9 @@
+package ui;
+
+//куда выводится ответ интерфейса; flush() вызывается по завершении каждой команды
+public interface OutputSink {
+
+  void print(String output);
+
+  void flush();
+}
@@ -0,0 +1,56 @@
+package ui;
+
+//последние capacity символов вывода команды в кольцевом буфере фиксированного размера
+public class RingTranscript implements Transcript {
+
+  public static final int DEFAULT_CAPACITY = 1 << 16;
+
+  private final char[] buffer;
+  //всего записано символов с начала команды
+  private long written;
+  private boolean isEmpty = true;
+
+  public RingTranscript(int capacity) {
+    buffer = new char[capacity];
+  }
+
+  @Override
+  public void add(String output) {
+    if (!isEmpty) {
+      append("\n", 0);
+    }
+    isEmpty = false;
+    //из строки длиннее буфера нужен только хвост
+    append(output, Math.max(0, output.length() - buffer.length));
+  }
+
+  @Override
+  public void append(String output) {
+    isEmpty = false;
+    append(output, Math.max(0, output.length() - buffer.length));
+  }
+
+  private void append(String output, int from) {
+    int length = output.length() - from;
+    int position = (int) (written % buffer.length);
+    int first = Math.min(length, buffer.length - position);
+    output.getChars(from, from + first, buffer, position);
+    output.getChars(from + first, from + length, buffer, 0);
+    written += length;
+  }
+
+  @Override
+  public void clear() {
+    written = 0;
+    isEmpty = true;
+  }
+
+  @Override
+  public String toString() {
+    if (written <= buffer.length) {
+      return new String(buffer, 0, (int) written);
+    }
+    int start = (int) (written % buffer.length);
+    return new String(buffer, start, buffer.length - start) + new String(buffer, 0, start);
+  }
+}
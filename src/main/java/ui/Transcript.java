@@ -0,0 +1,13 @@
+package ui;
+
+//копия вывода текущей команды; toString() возвращает строки, соединенные переводом строки
+public interface Transcript {
+
+  void add(String output);
+
+  //продолжает последнюю строку вывода без разделителя
+  void append(String output);
+
+  //вызывается перед каждой командой
+  void clear();
+}
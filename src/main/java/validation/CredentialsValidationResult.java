@@ -0,0 +1,37 @@
+package validation;
+
+import entities.UnsavedStudent;
+import enums.CredentialsError;
+
+public class CredentialsValidationResult {
+
+  private final UnsavedStudent student;
+  private final CredentialsError error;
+
+  private CredentialsValidationResult(UnsavedStudent student, CredentialsError error) {
+    this.student = student;
+    this.error = error;
+  }
+
+  public static CredentialsValidationResult valid(UnsavedStudent student) {
+    return new CredentialsValidationResult(student, null);
+  }
+
+  public static CredentialsValidationResult error(CredentialsError error) {
+    return new CredentialsValidationResult(null, error);
+  }
+
+  public boolean isValid() {
+    return error == null;
+  }
+
+  //null, если строка не прошла проверку
+  public UnsavedStudent getStudent() {
+    return student;
+  }
+
+  //null, если строка корректна
+  public CredentialsError getError() {
+    return error;
+  }
+}
@@ -0,0 +1,41 @@
+package validation;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import entities.UnsavedStudent;
+import enums.CredentialsError;
+
+//шаблоны компилируются один раз, строка разбирается за один проход;
+//экземпляр переиспользует Matcher'ы и не является потокобезопасным
+public class CredentialsValidator {
+
+  private static final Pattern CREDENTIALS = Pattern.compile("^(\\S+)\\s(.+)\\s(.+)$");
+  private static final Pattern FIRST_NAME = Pattern.compile("\\w+[\\-']?\\w+");
+  private static final Pattern LAST_NAME = Pattern.compile(
+      "(\\w+[\\-']?\\w+([\\-']?\\w+)?\\s?)+");
+  private static final Pattern EMAIL = Pattern.compile("[\\w\\.]+@\\w+\\.\\w+");
+
+  private final Matcher credentialsMatcher = CREDENTIALS.matcher("");
+  private final Matcher firstNameMatcher = FIRST_NAME.matcher("");
+  private final Matcher lastNameMatcher = LAST_NAME.matcher("");
+  private final Matcher emailMatcher = EMAIL.matcher("");
+
+  public CredentialsValidationResult validate(String credentials) {
+    if (!credentialsMatcher.reset(credentials).find()) {
+      return CredentialsValidationResult.error(CredentialsError.CREDENTIALS);
+    }
+    String name = credentialsMatcher.group(1);
+    String lastname = credentialsMatcher.group(2);
+    String email = credentialsMatcher.group(3);
+    if (!firstNameMatcher.reset(name.trim()).matches()) {
+      return CredentialsValidationResult.error(CredentialsError.FIRST_NAME);
+    }
+    if (!lastNameMatcher.reset(lastname.trim()).matches()) {
+      return CredentialsValidationResult.error(CredentialsError.LAST_NAME);
+    }
+    if (!emailMatcher.reset(email.trim()).matches()) {
+      return CredentialsValidationResult.error(CredentialsError.EMAIL);
+    }
+    return CredentialsValidationResult.valid(new UnsavedStudent(name, lastname, email));
+  }
+}
@@ -0,0 +1,278 @@
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import db.CourseStatistics;
+import db.StatisticsSnapshot;
+import db.TempStudentStorage;
+import entities.Student;
+import entities.UnsavedStudent;
+
+public class ConcurrentStorageTest {
+
+  private static final int THREADS = 32;
+  private static final int STUDENTS = 2_000;
+
+  @AfterEach
+  public void restoreStudentsStorage() throws NoSuchFieldException, IllegalAccessException {
+    TempStudentStorage.setStudents(new ArrayList<>());
+    Field studentsId = TempStudentStorage.class.getDeclaredField("studentsId");
+    studentsId.setAccessible(true);
+    ((AtomicInteger) studentsId.get(TempStudentStorage.class)).set(1);
+  }
+
+  //запускает task в THREADS потоках одновременно и возвращает их результаты
+  private static <T> List<T> runConcurrently(Callable<T> task) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    CountDownLatch start = new CountDownLatch(1);
+    try {
+      List<Future<T>> futures = new ArrayList<>();
+      for (int thread = 0; thread < THREADS; thread++) {
+        futures.add(executor.submit(() -> {
+          start.await();
+          return task.call();
+        }));
+      }
+      start.countDown();
+      List<T> results = new ArrayList<>();
+      for (Future<T> future : futures) {
+        results.add(future.get());
+      }
+      return results;
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void shouldRegisterEachEmailOnceUnderContention() throws Exception {
+    AtomicInteger thread = new AtomicInteger();
+    List<Integer> added = runConcurrently(() -> {
+      boolean isUpperCase = thread.getAndIncrement() % 2 == 0;
+      int count = 0;
+      for (int i = 0; i < STUDENTS; i++) {
+        String email = "student" + i + "@gmail.com";
+        if (TempStudentStorage.addStudent(new UnsavedStudent("Alex", "Hunter",
+            isUpperCase ? email.toUpperCase(Locale.ROOT) : email))) {
+          count++;
+        }
+      }
+      return count;
+    });
+
+    Assertions.assertEquals(STUDENTS, added.stream().mapToInt(Integer::intValue).sum());
+    List<Student> students = TempStudentStorage.getStudents();
+    Assertions.assertEquals(STUDENTS, students.size());
+    Set<Integer> ids = new HashSet<>();
+    for (Student student : students) {
+      Assertions.assertTrue(student.getId() >= 1 && student.getId() <= STUDENTS);
+      Assertions.assertTrue(ids.add(student.getId()));
+      Assertions.assertSame(student, TempStudentStorage.getStudentById(student.getId()).get());
+      Assertions.assertSame(student,
+          TempStudentStorage.getStudentByEmail(student.getEmail()).get());
+    }
+    Assertions.assertEquals(STUDENTS, TempStudentStorage.getStatistics().getStudents());
+  }
+
+  @Test
+  public void shouldNotLoseConcurrentPointUpdates() throws Exception {
+    for (int i = 0; i < STUDENTS; i++) {
+      TempStudentStorage.addStudent(
+          new UnsavedStudent("Alex", "Hunter", "student" + i + "@gmail.com"));
+    }
+    int[] subjectsId = new int[]{1, 2, 3, 4};
+    int[] points = new int[]{1, 1, 1, 1};
+
+    runConcurrently(() -> {
+      for (int id = 1; id <= STUDENTS; id++) {
+        TempStudentStorage.getStudentById(id).get().updatePoints(subjectsId, points);
+      }
+      return null;
+    });
+
+    for (Student student : TempStudentStorage.getStudents()) {
+      for (int course = 0; course < Student.getCoursesCount(); course++) {
+        Assertions.assertEquals(THREADS, student.getPoint(course));
+      }
+    }
+    CourseStatistics statistics = TempStudentStorage.getStatistics();
+    Assertions.assertEquals(STUDENTS, statistics.getEnrolledStudents());
+    for (int course = 0; course < Student.getCoursesCount(); course++) {
+      Assertions.assertEquals((long) THREADS * STUDENTS, statistics.getPoints(course));
+      Assertions.assertEquals((long) THREADS * STUDENTS, statistics.getSubmissions(course));
+      Assertions.assertEquals(STUDENTS, statistics.getEnrolled(course));
+      Assertions.assertEquals(STUDENTS, TempStudentStorage.getLeaderboard().getSize(course));
+    }
+    Assertions.assertEquals(STUDENTS * Student.getCoursesCount(),
+        TempStudentStorage.getNotifications().size());
+  }
+
+  @Test
+  public void shouldCountPointsOfJustRegisteredStudentsOnce() throws Exception {
+    AtomicInteger thread = new AtomicInteger();
+
+    runConcurrently(() -> {
+      int number = thread.getAndIncrement();
+      //половина потоков регистрирует студентов, остальные сразу начисляют им баллы
+      for (int id = number / 2 * STUDENTS / THREADS + 1; id <= STUDENTS; id++) {
+        if (number % 2 == 0) {
+          TempStudentStorage.addStudent(
+              new UnsavedStudent("Alex", "Hunter", "student" + id + "@gmail.com"));
+        } else {
+          TempStudentStorage.getStudentById(id).ifPresent(student -> student.addPoint(0, 1));
+        }
+      }
+      return null;
+    });
+
+    CourseStatistics recounted = new CourseStatistics();
+    recounted.addStudents(TempStudentStorage.getStudents());
+    CourseStatistics statistics = TempStudentStorage.getStatistics();
+    Assertions.assertEquals(recounted.getEnrolledStudents(), statistics.getEnrolledStudents());
+    Assertions.assertEquals(recounted.getEnrolled(0), statistics.getEnrolled(0));
+    Assertions.assertEquals(recounted.getPoints(0), statistics.getPoints(0));
+  }
+
+  @Test
+  public void shouldNotSendRequeuedCourseFromConcurrentDrain() throws Exception {
+    TempStudentStorage.addStudent(new UnsavedStudent("Alex", "Hunter", "hunter@gmail.com"));
+    Student student = TempStudentStorage.getStudentById(1).get();
+    student.addPoint(0, 1);
+    AtomicInteger sent = new AtomicInteger();
+    //пока курс отправляется, он снова попадает в очередь, и ее выбирает другой поток
+    Thread other = new Thread(() -> {
+      TempStudentStorage.getNotifications().addStudent(student);
+      TempStudentStorage.getNotifications().drain((again, course) -> sent.incrementAndGet());
+    });
+
+    TempStudentStorage.getNotifications().drain((notified, course) -> {
+      sent.incrementAndGet();
+      other.start();
+      try {
+        other.join(500);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    other.join();
+
+    Assertions.assertEquals(1, sent.get());
+    Assertions.assertTrue(student.isNotified(0));
+  }
+
+  @Test
+  public void shouldNotifyEachCourseOnceWhilePointsAreAdded() throws Exception {
+    for (int i = 0; i < STUDENTS; i++) {
+      TempStudentStorage.addStudent(
+          new UnsavedStudent("Alex", "Hunter", "student" + i + "@gmail.com"));
+    }
+    AtomicInteger sent = new AtomicInteger();
+    AtomicInteger thread = new AtomicInteger();
+
+    runConcurrently(() -> {
+      //половина потоков начисляет баллы, остальные рассылают уведомления
+      if (thread.getAndIncrement() % 2 == 0) {
+        for (int id = 1; id <= STUDENTS; id++) {
+          TempStudentStorage.getStudentById(id).get().addPoint(id % Student.getCoursesCount(), 1);
+        }
+      } else {
+        for (int i = 0; i < 100; i++) {
+          TempStudentStorage.getNotifications().drain((student, course) -> sent.incrementAndGet());
+        }
+      }
+      return null;
+    });
+    TempStudentStorage.getNotifications().drain((student, course) -> sent.incrementAndGet());
+
+    Assertions.assertEquals(STUDENTS, sent.get());
+    for (Student student : TempStudentStorage.getStudents()) {
+      Assertions.assertTrue(student.isNotified(student.getId() % Student.getCoursesCount()));
+    }
+  }
+
+  @Test
+  public void shouldReadConsistentStatisticsSnapshotsDuringWrites() throws Exception {
+    for (int i = 0; i < STUDENTS; i++) {
+      TempStudentStorage.addStudent(
+          new UnsavedStudent("Alex", "Hunter", "student" + i + "@gmail.com"));
+    }
+    AtomicInteger thread = new AtomicInteger();
+
+    List<Boolean> results = runConcurrently(() -> {
+      int number = thread.getAndIncrement();
+      if (number % 2 == 0) {
+        for (int id = 1; id <= STUDENTS; id++) {
+          TempStudentStorage.getStudentById(id).get()
+              .addPoint((id + number) % Student.getCoursesCount(), 1);
+        }
+        return true;
+      }
+      //каждое начисление в 1 балл увеличивает баллы и сдачи курса одновременно
+      for (int i = 0; i < 2_000; i++) {
+        StatisticsSnapshot snapshot = TempStudentStorage.getStatistics().snapshot();
+        for (int course = 0; course < snapshot.getCoursesCount(); course++) {
+          if (snapshot.getPoints(course) != snapshot.getSubmissions(course)
+              || snapshot.getEnrolled(course) > snapshot.getEnrolledStudents()) {
+            return false;
+          }
+        }
+      }
+      return true;
+    });
+
+    Assertions.assertFalse(results.contains(false));
+    StatisticsSnapshot statistics = TempStudentStorage.getStatistics().snapshot();
+    long points = 0;
+    for (int course = 0; course < statistics.getCoursesCount(); course++) {
+      points += statistics.getPoints(course);
+    }
+    Assertions.assertEquals((long) THREADS / 2 * STUDENTS, points);
+  }
+
+  @Test
+  public void shouldCopyLeaderboardRowsAtTheMomentOfStatisticsSnapshot() throws Exception {
+    for (int i = 0; i < STUDENTS; i++) {
+      TempStudentStorage.addStudent(
+          new UnsavedStudent("Alex", "Hunter", "student" + i + "@gmail.com"));
+    }
+    AtomicInteger thread = new AtomicInteger();
+
+    List<Boolean> results = runConcurrently(() -> {
+      int number = thread.getAndIncrement();
+      if (number % 2 == 0) {
+        //студенты разных полос по очереди начинают учиться на курсе 0
+        for (int id = number / 2 + 1; id <= STUDENTS; id += THREADS / 2) {
+          TempStudentStorage.getStudentById(id).get().addPoint(0, 1);
+        }
+        return true;
+      }
+      for (int i = 0; i < 500; i++) {
+        StatisticsSnapshot snapshot = TempStudentStorage.getStatistics()
+            .snapshot(0, Integer.MAX_VALUE);
+        long[] rows = new long[2];
+        snapshot.forEachTop((id, points) -> {
+          rows[0]++;
+          rows[1] += points;
+        });
+        if (rows[0] != snapshot.getEnrolled(0) || rows[1] != snapshot.getPoints(0)) {
+          return false;
+        }
+      }
+      return true;
+    });
+
+    Assertions.assertFalse(results.contains(false));
+    Assertions.assertEquals(STUDENTS, TempStudentStorage.getStatistics().getEnrolled(0));
+  }
+}
@@ -0,0 +1,162 @@
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import db.CourseStatistics;
+import db.TempStudentStorage;
+import entities.CourseCatalog;
+import entities.Student;
+import entities.UnsavedStudent;
+import entities.subjects.AcademicSubject;
+import enums.Command;
+import input.UserInputService;
+import session.Session;
+import ui.MainUi;
+
+public class CourseCatalogTest {
+
+  @TempDir
+  Path directory;
+
+  @AfterEach
+  public void restoreCatalog() throws NoSuchFieldException, IllegalAccessException {
+    CourseCatalog.setCurrent(CourseCatalog.defaults());
+    TempStudentStorage.setStudents(new ArrayList<>());
+    Field studentsId = TempStudentStorage.class.getDeclaredField("studentsId");
+    studentsId.setAccessible(true);
+    ((AtomicInteger) studentsId.get(TempStudentStorage.class)).set(1);
+  }
+
+  private CourseCatalog load(String definitions) throws IOException {
+    Path file = directory.resolve("courses.txt");
+    Files.writeString(file, definitions);
+    return CourseCatalog.load(file);
+  }
+
+  @Test
+  public void shouldDescribeBuiltInCourses() {
+    CourseCatalog catalog = CourseCatalog.defaults();
+    Assertions.assertArrayEquals(new String[]{"Java", "DSA", "Databases", "Spring"},
+        catalog.getNames());
+    Assertions.assertEquals(480, catalog.find(" databases ").getMaxPoints());
+    Assertions.assertEquals(3, catalog.find("DATABASES").getId());
+    Assertions.assertNull(catalog.find("Unknown"));
+  }
+
+  @Test
+  public void shouldLoadCoursesFromDefinitionFile() throws IOException {
+    CourseCatalog catalog = load(
+        "# name max points\nJava 600\n\nKotlin 300\nMachine Learning 700\n");
+    Assertions.assertEquals(3, catalog.size());
+    Assertions.assertEquals("Machine Learning", catalog.get(2).getName());
+    Assertions.assertEquals(700, catalog.get(2).getMaxPoints());
+    Assertions.assertEquals(2, catalog.find("kotlin").getId());
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"", "# empty\n", "Java\n", "Java 0\n", "Java x\n", "Java 1\njava 2\n"})
+  public void shouldRejectInvalidDefinitions(String definitions) {
+    Assertions.assertThrows(IOException.class, () -> load(definitions));
+  }
+
+  @Test
+  public void shouldTrackPointsOfLoadedCourses() throws IOException {
+    CourseCatalog.setCurrent(load("Java 600\nKotlin 300\nGo 200\nRust 100\nScala 50\n"));
+    TempStudentStorage.setStudents(new ArrayList<>());
+    TempStudentStorage.addStudent(new UnsavedStudent("Alex", "Hunter", "hunter@gmail.com"));
+    Student student = TempStudentStorage.getStudentById(1).get();
+    student.addPoint(4, 70);
+    student.addPoint(1, 10);
+
+    Assertions.assertEquals(5, Student.getCoursesCount());
+    Assertions.assertEquals(50, student.getPoint(4));
+    AcademicSubject scala = student.getAcademicSubjectByName("scala");
+    Assertions.assertEquals("CatalogSubject", scala.getClass().getSimpleName());
+    Assertions.assertEquals(5, scala.getId());
+    Assertions.assertEquals(50, scala.getPoint());
+    Assertions.assertEquals("Java",
+        student.getAcademicSubjects().get(0).getClass().getSimpleName());
+
+    CourseStatistics statistics = TempStudentStorage.getStatistics();
+    Assertions.assertEquals(5, statistics.getCoursesCount());
+    Assertions.assertEquals("Scala", statistics.getCourseName(4));
+    Assertions.assertEquals(1, statistics.getEnrolled(4));
+    Assertions.assertEquals(60, statistics.getPoints(1) + statistics.getPoints(4));
+  }
+
+  @Test
+  public void shouldAddAndFindPointsOfEveryLoadedCourse() throws IOException {
+    CourseCatalog.setCurrent(load("Java 600\nKotlin 300\nGo 200\nRust 100\nScala 50\n"));
+    TempStudentStorage.setStudents(new ArrayList<>());
+    TempStudentStorage.addStudent(new UnsavedStudent("Alex", "Hunter", "hunter@gmail.com"));
+    PrintStream systemOut = System.out;
+    System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    try {
+      MainUi mainUi = new MainUi(new Session());
+      mainUi.setInputReader(new UserInputService(new ByteArrayInputStream(
+          "1 1 2 3 4 5\n1 1 2 3 4\nback\n1\nback\n".getBytes())));
+      mainUi.processCommand(Command.ADD_POINTS);
+      String output = mainUi.getConsoleOutput().toString();
+      Assertions.assertTrue(output.contains("Points updated."));
+      Assertions.assertTrue(output.contains("Incorrect points format"));
+      mainUi.processCommand(Command.FIND);
+      Assertions.assertTrue(mainUi.getConsoleOutput().toString()
+          .endsWith("1 points: Java=1; Kotlin=2; Go=3; Rust=4; Scala=5\n"));
+    } finally {
+      System.setOut(systemOut);
+    }
+  }
+
+  @Test
+  public void shouldRestoreJournalAndSnapshotOfManyCourses() throws IOException {
+    StringBuilder definitions = new StringBuilder();
+    for (int course = 1; course <= 200; course++) {
+      definitions.append("Course").append(course).append(" 1000\n");
+    }
+    CourseCatalog catalog = load(definitions.toString());
+    CourseCatalog.setCurrent(catalog);
+    TempStudentStorage.setStudents(new ArrayList<>());
+    Path journal = directory.resolve("tracker.journal");
+    Path snapshot = directory.resolve("tracker.snapshot");
+    TempStudentStorage.openJournal(journal, snapshot);
+    TempStudentStorage.addStudent(new UnsavedStudent("Alex", "Hunter", "hunter@gmail.com"));
+    Student student = TempStudentStorage.getStudentById(1).get();
+    student.addPoint(150, 15);
+    student.setNotified(64);
+    TempStudentStorage.takeSnapshot().join();
+    student.addPoint(199, 19);
+    student.setNotified(150);
+    TempStudentStorage.closeJournal();
+
+    TempStudentStorage.setStudents(new ArrayList<>());
+    TempStudentStorage.openJournal(journal, snapshot);
+    Student restored = TempStudentStorage.getStudentById(1).get();
+    Assertions.assertEquals(15, restored.getPoint(150));
+    Assertions.assertEquals(19, restored.getPoint(199));
+    Assertions.assertTrue(restored.isNotified(64));
+    Assertions.assertTrue(restored.isNotified(150));
+    Assertions.assertFalse(restored.isNotified(0));
+    Assertions.assertEquals(1, TempStudentStorage.getStatistics().getSubmissions(199));
+    TempStudentStorage.closeJournal();
+
+    //с другим каталогом баллы попали бы не на те курсы
+    CourseCatalog.setCurrent(CourseCatalog.defaults());
+    TempStudentStorage.setStudents(new ArrayList<>());
+    Assertions.assertThrows(IOException.class,
+        () -> TempStudentStorage.openJournal(journal, snapshot));
+    Files.delete(journal);
+    Assertions.assertThrows(IOException.class,
+        () -> TempStudentStorage.openJournal(journal, snapshot));
+  }
+}
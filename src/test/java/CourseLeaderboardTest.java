@@ -0,0 +1,81 @@
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import db.CourseLeaderboard;
+import db.TempStudentStorage;
+import entities.Student;
+import entities.UnsavedStudent;
+
+public class CourseLeaderboardTest {
+
+  private static final int[] SUBJECTS_ID = new int[]{1, 2, 3, 4};
+
+  @AfterEach
+  public void restoreStudentsStorage() throws NoSuchFieldException, IllegalAccessException {
+    TempStudentStorage.setStudents(new ArrayList<>());
+    Field studentsId = TempStudentStorage.class.getDeclaredField("studentsId");
+    studentsId.setAccessible(true);
+    ((AtomicInteger) studentsId.get(TempStudentStorage.class)).set(1);
+  }
+
+  private static List<int[]> getTop(int course, int limit) {
+    List<int[]> rows = new ArrayList<>();
+    TempStudentStorage.getLeaderboard()
+        .forEachTop(course, limit, (id, points) -> rows.add(new int[]{id, points}));
+    return rows;
+  }
+
+  @Test
+  public void shouldRankByPointsDescendingThenById() {
+    TempStudentStorage.addStudent(new UnsavedStudent("Alex", "Hunter", "hunter@gmail.com"));
+    TempStudentStorage.addStudent(new UnsavedStudent("Alexa", "Hunters", "alexa@gmail.com"));
+    TempStudentStorage.addStudent(new UnsavedStudent("Alexis", "Hortensia", "alexis@gmail.com"));
+    TempStudentStorage.getStudentById(1).get().updatePoints(SUBJECTS_ID, new int[]{5, 0, 0, 0});
+    TempStudentStorage.getStudentById(2).get().updatePoints(SUBJECTS_ID, new int[]{7, 0, 0, 0});
+    TempStudentStorage.getStudentById(3).get().updatePoints(SUBJECTS_ID, new int[]{5, 0, 0, 0});
+
+    List<int[]> top = getTop(0, Integer.MAX_VALUE);
+    Assertions.assertEquals(3, top.size());
+    Assertions.assertArrayEquals(new int[]{2, 7}, top.get(0));
+    Assertions.assertArrayEquals(new int[]{1, 5}, top.get(1));
+    Assertions.assertArrayEquals(new int[]{3, 5}, top.get(2));
+    Assertions.assertEquals(1, getTop(0, 1).size());
+    Assertions.assertTrue(getTop(1, 10).isEmpty());
+  }
+
+  @Test
+  public void shouldMatchFullSortAfterRandomUpdates() {
+    Random random = new Random(7);
+    int studentsCount = 3000;
+    for (int i = 0; i < studentsCount; i++) {
+      TempStudentStorage.addStudent(
+          new UnsavedStudent("Alex", "Hunter", "hunter" + i + "@gmail.com"));
+    }
+    for (int i = 0; i < 20000; i++) {
+      Student student = TempStudentStorage.getStudentById(random.nextInt(studentsCount) + 1).get();
+      student.updatePoints(SUBJECTS_ID, new int[]{random.nextInt(30), random.nextInt(3), 0, 0});
+    }
+
+    CourseLeaderboard leaderboard = TempStudentStorage.getLeaderboard();
+    for (int course = 0; course < SUBJECTS_ID.length; course++) {
+      int index = course;
+      List<Student> expected = new ArrayList<>(TempStudentStorage.getStudents());
+      expected.removeIf(student -> student.getPoint(index) == 0);
+      expected.sort(Comparator.comparingInt((Student student) -> student.getPoint(index))
+          .reversed().thenComparingInt(Student::getId));
+      List<int[]> top = getTop(course, Integer.MAX_VALUE);
+      Assertions.assertEquals(expected.size(), leaderboard.getSize(course));
+      Assertions.assertEquals(expected.size(), top.size());
+      for (int i = 0; i < top.size(); i++) {
+        Assertions.assertArrayEquals(
+            new int[]{expected.get(i).getId(), expected.get(i).getPoint(course)}, top.get(i));
+      }
+    }
+  }
+}
@@ -0,0 +1,91 @@
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import db.CourseStatistics;
+import db.TempStudentStorage;
+import entities.Student;
+import entities.UnsavedStudent;
+
+public class CourseStatisticsTest {
+
+  private static final int[] SUBJECTS_ID = new int[]{1, 2, 3, 4};
+
+  @AfterEach
+  public void restoreStudentsStorage() throws NoSuchFieldException, IllegalAccessException {
+    TempStudentStorage.setStudents(new ArrayList<>());
+    Field studentsId = TempStudentStorage.class.getDeclaredField("studentsId");
+    studentsId.setAccessible(true);
+    ((AtomicInteger) studentsId.get(TempStudentStorage.class)).set(1);
+  }
+
+  @Test
+  public void shouldCountEnrolledStudentsAndPoints() {
+    TempStudentStorage.addStudent(new UnsavedStudent("Alex", "Hunter", "hunter@gmail.com"));
+    TempStudentStorage.addStudent(new UnsavedStudent("Alexa", "Hunters", "alexa@gmail.com"));
+    TempStudentStorage.getStudentById(1).get().updatePoints(SUBJECTS_ID, new int[]{5, 0, 0, 1});
+    TempStudentStorage.getStudentById(1).get().updatePoints(SUBJECTS_ID, new int[]{5, 0, 0, 0});
+    TempStudentStorage.getStudentById(2).get().updatePoints(SUBJECTS_ID, new int[]{0, 0, 0, 700});
+
+    CourseStatistics statistics = TempStudentStorage.getStatistics();
+    Assertions.assertEquals(2, statistics.getStudents());
+    Assertions.assertEquals(2, statistics.getEnrolledStudents());
+    Assertions.assertArrayEquals(new long[]{1, 0, 0, 2},
+        new long[]{statistics.getEnrolled(0), statistics.getEnrolled(1),
+            statistics.getEnrolled(2), statistics.getEnrolled(3)});
+    Assertions.assertArrayEquals(new long[]{10, 0, 0, 551},
+        new long[]{statistics.getPoints(0), statistics.getPoints(1),
+            statistics.getPoints(2), statistics.getPoints(3)});
+    Assertions.assertArrayEquals(new long[]{2, 0, 0, 2},
+        new long[]{statistics.getSubmissions(0), statistics.getSubmissions(1),
+            statistics.getSubmissions(2), statistics.getSubmissions(3)});
+  }
+
+  @Test
+  public void shouldResetStatisticsWithStorage() {
+    TempStudentStorage.addStudent(new UnsavedStudent("Alex", "Hunter", "hunter@gmail.com"));
+    TempStudentStorage.getStudentById(1).get().updatePoints(SUBJECTS_ID, new int[]{5, 5, 5, 5});
+    TempStudentStorage.setStudents(new ArrayList<>());
+
+    Assertions.assertEquals(0, TempStudentStorage.getStatistics().getEnrolledStudents());
+    Assertions.assertEquals(0, TempStudentStorage.getStatistics().getPoints(0));
+  }
+
+  @Test
+  public void shouldAggregateLargeCohortInParallelAsSequentially() {
+    Random random = new Random(7);
+    List<Student> cohort = new ArrayList<>();
+    for (int id = 1; id <= 20_000; id++) {
+      Student student = new Student(id, "Alex", "Hunter", "student" + id + "@gmail.com");
+      for (int course = 0; course < Student.getCoursesCount(); course++) {
+        student.addPoint(course, random.nextInt(3) == 0 ? 0 : random.nextInt(1, 700));
+      }
+      cohort.add(student);
+    }
+    TempStudentStorage.setStudents(cohort);
+    List<Student> students = TempStudentStorage.getStudents();
+
+    CourseStatistics perStudent = new CourseStatistics();
+    students.forEach(perStudent::addStudent);
+    CourseStatistics sequential = new CourseStatistics();
+    sequential.addStudents(students, Integer.MAX_VALUE);
+    CourseStatistics parallel = new CourseStatistics();
+    parallel.addStudents(students, 1);
+
+    for (CourseStatistics statistics : List.of(sequential, parallel,
+        TempStudentStorage.getStatistics())) {
+      Assertions.assertEquals(perStudent.getStudents(), statistics.getStudents());
+      Assertions.assertEquals(perStudent.getEnrolledStudents(), statistics.getEnrolledStudents());
+      for (int course = 0; course < perStudent.getCoursesCount(); course++) {
+        Assertions.assertEquals(perStudent.getEnrolled(course), statistics.getEnrolled(course));
+        Assertions.assertEquals(perStudent.getPoints(course), statistics.getPoints(course));
+        Assertions.assertEquals(perStudent.getAveragePoints(course),
+            statistics.getAveragePoints(course));
+      }
+    }
+  }
+}
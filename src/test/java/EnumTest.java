@@ -1,6 +1,7 @@
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import enums.Command;
 import enums.Course;
 
 public class EnumTest {
@@ -19,4 +20,46 @@ public class EnumTest {
   public void shouldReturnTrueIfCourseIsExists(String input, boolean isCorrect) {
     Assertions.assertEquals(isCorrect, Course.isExistedCourse(input));
   }
+
+  @ParameterizedTest
+  @CsvSource({
+      "'import students a.csv', IMPORT_STUDENTS, 'a.csv'",
+      "'IMPORT STUDENTS  dir/a b.csv', IMPORT_STUDENTS, 'dir/a b.csv'",
+      "'import students', IMPORT_STUDENTS, ''",
+      "'import studentsa.csv', UNKNOWN, ''",
+      "'exit now', UNKNOWN, ''",
+      "'list page 2', LIST, 'page 2'",
+      "'LIST 1 10', LIST, '1 10'"
+  })
+  public void shouldParseCommandArguments(String input, Command command, String arguments) {
+    Assertions.assertEquals(command, Command.getByDescription(input));
+    Assertions.assertEquals(arguments, command.getArguments(input));
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+      "'  Java ', JAVA",
+      "'SPRING', SPRING",
+      "'dAtAbAsEs', DATABASES",
+      "'unknown', UNKNOWN",
+      "'java top 10', ",
+      "'jav', ",
+      "'', "
+  })
+  public void shouldFindCourseIgnoringCaseAndSpaces(String input, Course course) {
+    Assertions.assertEquals(course, Course.find(input));
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+      "'Back', BACK",
+      "'add points', ADD_POINTS",
+      "'add  points', ",
+      "'back 1', ",
+      "'list	5', LIST",
+      "'importstudents', "
+  })
+  public void shouldFindCommandOrReturnNull(String input, Command command) {
+    Assertions.assertEquals(command, Command.find(input));
+  }
 }
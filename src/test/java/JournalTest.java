@@ -0,0 +1,177 @@
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import db.TempStudentStorage;
+import entities.Student;
+import entities.UnsavedStudent;
+
+public class JournalTest {
+
+  private static final int[] SUBJECTS_ID = new int[]{1, 2, 3, 4};
+
+  @TempDir
+  Path directory;
+
+  @AfterEach
+  public void restoreStudentsStorage()
+      throws NoSuchFieldException, IllegalAccessException, IOException {
+    TempStudentStorage.closeJournal();
+    resetStorage();
+  }
+
+  private void resetStorage() throws NoSuchFieldException, IllegalAccessException {
+    TempStudentStorage.setStudents(new ArrayList<>());
+    Field studentsId = TempStudentStorage.class.getDeclaredField("studentsId");
+    studentsId.setAccessible(true);
+    ((AtomicInteger) studentsId.get(TempStudentStorage.class)).set(1);
+  }
+
+  private void restart(Path journal)
+      throws IOException, NoSuchFieldException, IllegalAccessException {
+    TempStudentStorage.closeJournal();
+    resetStorage();
+    TempStudentStorage.openJournal(journal);
+  }
+
+  @Test
+  public void shouldRestoreStudentsPointsAndNotificationsFromJournal()
+      throws IOException, NoSuchFieldException, IllegalAccessException {
+    Path journal = directory.resolve("tracker.journal");
+    TempStudentStorage.openJournal(journal);
+    TempStudentStorage.addStudent(new UnsavedStudent("Alex", "Hunter", "hunter@gmail.com"));
+    TempStudentStorage.addStudent(
+        new UnsavedStudent("Alexa", "van der Hunters", "alexa@gmail.com"));
+    TempStudentStorage.getStudentById(1).get().updatePoints(SUBJECTS_ID, new int[]{10, 0, 0, 700});
+    TempStudentStorage.getStudentById(2).get().updatePoints(SUBJECTS_ID, new int[]{0, 3, 0, 0});
+    TempStudentStorage.getStudentById(1).get().getAcademicSubjects().get(3).setNotify();
+    TempStudentStorage.syncJournal();
+
+    restart(journal);
+
+    Student first = TempStudentStorage.getStudentById(1).get();
+    Student second = TempStudentStorage.getStudentById(2).get();
+    Assertions.assertEquals("van der Hunters", second.getLastname());
+    Assertions.assertEquals(10, first.getAcademicSubjects().get(0).getPoint());
+    Assertions.assertEquals(550, first.getAcademicSubjects().get(3).getPoint());
+    Assertions.assertTrue(first.getAcademicSubjects().get(3).isNotified());
+    Assertions.assertEquals(3, second.getAcademicSubjects().get(1).getPoint());
+    Assertions.assertEquals(2, TempStudentStorage.getStatistics().getEnrolledStudents());
+
+    TempStudentStorage.addStudent(new UnsavedStudent("Alexis", "Hortensia", "alexis@gmail.com"));
+    Assertions.assertEquals(3,
+        TempStudentStorage.getStudentByEmail("alexis@gmail.com").get().getId());
+  }
+
+  @Test
+  public void shouldDropTornTailOfJournal()
+      throws IOException, NoSuchFieldException, IllegalAccessException {
+    Path journal = directory.resolve("tracker.journal");
+    TempStudentStorage.openJournal(journal);
+    TempStudentStorage.addStudent(new UnsavedStudent("Alex", "Hunter", "hunter@gmail.com"));
+    TempStudentStorage.addStudent(new UnsavedStudent("Alexa", "Hunters", "alexa@gmail.com"));
+    TempStudentStorage.closeJournal();
+
+    long size = Files.size(journal);
+    byte[] bytes = Files.readAllBytes(journal);
+    Files.write(journal, Arrays.copyOf(bytes, bytes.length - 3));
+    restart(journal);
+
+    Assertions.assertEquals(1, TempStudentStorage.getStudents().size());
+    Assertions.assertTrue(Files.size(journal) < size - 3);
+  }
+
+  @Test
+  public void shouldLoadSnapshotAndReplayJournalTail()
+      throws IOException, NoSuchFieldException, IllegalAccessException {
+    Path journal = directory.resolve("tracker.journal");
+    Path snapshot = directory.resolve("tracker.snapshot");
+    TempStudentStorage.openJournal(journal, snapshot);
+    TempStudentStorage.addStudent(new UnsavedStudent("Alex", "Hunter", "hunter@gmail.com"));
+    TempStudentStorage.getStudentById(1).get().updatePoints(SUBJECTS_ID, new int[]{10, 0, 0, 5});
+    TempStudentStorage.getStudentById(1).get().getAcademicSubjects().get(0).setNotify();
+    TempStudentStorage.takeSnapshot().join();
+    TempStudentStorage.addStudent(new UnsavedStudent("Alexa", "Hunters", "alexa@gmail.com"));
+    TempStudentStorage.getStudentById(1).get().updatePoints(SUBJECTS_ID, new int[]{1, 0, 0, 0});
+    TempStudentStorage.closeJournal();
+
+    resetStorage();
+    TempStudentStorage.openJournal(journal, snapshot);
+
+    Student first = TempStudentStorage.getStudentById(1).get();
+    Assertions.assertEquals(11, first.getAcademicSubjects().get(0).getPoint());
+    Assertions.assertEquals(5, first.getAcademicSubjects().get(3).getPoint());
+    Assertions.assertTrue(first.getAcademicSubjects().get(0).isNotified());
+    Assertions.assertFalse(first.getAcademicSubjects().get(3).isNotified());
+    Assertions.assertEquals(2, TempStudentStorage.getStudents().size());
+    //сдачи до снимка берутся из снимка, после - из хвоста журнала
+    Assertions.assertEquals(2, TempStudentStorage.getStatistics().getSubmissions(0));
+    Assertions.assertEquals(0, TempStudentStorage.getStatistics().getSubmissions(1));
+    Assertions.assertEquals(1, TempStudentStorage.getStatistics().getSubmissions(3));
+    Assertions.assertTrue(TempStudentStorage.addStudent(
+        new UnsavedStudent("Alexis", "Hortensia", "alexis@gmail.com")));
+    Assertions.assertEquals(3,
+        TempStudentStorage.getStudentByEmail("alexis@gmail.com").get().getId());
+  }
+
+  @Test
+  public void shouldNotReplayRecordsCapturedBySnapshotDuringWrites() throws Exception {
+    Path journal = directory.resolve("tracker.journal");
+    Path snapshot = directory.resolve("tracker.snapshot");
+    TempStudentStorage.openJournal(journal, snapshot);
+    int writers = 4;
+    AtomicBoolean isStopped = new AtomicBoolean();
+    AtomicInteger registered = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(writers);
+    try {
+      Future<?>[] futures = new Future<?>[writers];
+      for (int writer = 0; writer < writers; writer++) {
+        futures[writer] = executor.submit(() -> {
+          while (!isStopped.get()) {
+            int number = registered.incrementAndGet();
+            TempStudentStorage.addStudent(
+                new UnsavedStudent("Alex", "Hunter", "student" + number + "@gmail.com"));
+            for (int id = Math.max(1, number - 10); id < number; id++) {
+              TempStudentStorage.getStudentById(id).ifPresent(student -> student.addPoint(0, 1));
+            }
+          }
+        });
+      }
+      for (int i = 0; i < 20; i++) {
+        TempStudentStorage.takeSnapshot().join();
+      }
+      isStopped.set(true);
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    int[] points = new int[TempStudentStorage.getStudents().size()];
+    for (Student student : TempStudentStorage.getStudents()) {
+      points[student.getId() - 1] = student.getPoint(0);
+    }
+    long submissions = TempStudentStorage.getStatistics().getSubmissions(0);
+    TempStudentStorage.closeJournal();
+
+    resetStorage();
+    TempStudentStorage.openJournal(journal, snapshot);
+
+    Assertions.assertEquals(points.length, TempStudentStorage.getStudents().size());
+    for (Student student : TempStudentStorage.getStudents()) {
+      Assertions.assertEquals(points[student.getId() - 1], student.getPoint(0));
+    }
+    Assertions.assertEquals(submissions, TempStudentStorage.getStatistics().getSubmissions(0));
+  }
+}
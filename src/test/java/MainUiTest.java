@@ -7,11 +7,15 @@ import enums.Difficult;
 import input.UserInputService;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintStream;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -25,6 +29,7 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.CsvSource;
@@ -359,6 +364,41 @@ public class MainUiTest {
     Assertions.assertEquals(expectedOutput, mainUi.getConsoleOutput().toString());
   }
 
+  @ParameterizedTest
+  @CsvSource({
+      "'list 2 4', 'Students:\\n2\\n3\\n4\\n'",
+      "'list 4 1000000', 'Students:\\n4\\n5\\n'",
+      "'list 7 9', 'No students found\\n'",
+      "'list 0 2', 'Students:\\n1\\n2\\n'",
+      "'list page 1', 'Students:\\n1\\n2\\n3\\n4\\n5\\n'",
+      "'list page 2', 'No students found\\n'",
+      "'list 2', 'Usage: list [<from> <to> | page <n>]\\n'",
+      "'list page x', 'Usage: list [<from> <to> | page <n>]\\n'"
+  })
+  public void shouldShowStudentsRange(String input, String expectedOutput) {
+    for (int i = 0; i < 5; i++) {
+      TempStudentStorage.addStudent(
+          new UnsavedStudent("Alex", "Hunter", "hunter" + i + "@gmail.com"));
+    }
+    mainUi.processInput(input);
+    Assertions.assertEquals(expectedOutput.replace("\\n", "\n"),
+        mainUi.getConsoleOutput().toString());
+  }
+
+  @Test
+  public void shouldStreamLongStudentsListInChunks() {
+    StringBuilder expectedOutput = new StringBuilder("Students:\n");
+    for (int i = 1; i <= 3000; i++) {
+      TempStudentStorage.addStudent(
+          new UnsavedStudent("Alex", "Hunter", "hunter" + i + "@gmail.com"));
+      expectedOutput.append(i).append("\n");
+    }
+    setOutput();
+    mainUi.processInput("list");
+    Assertions.assertEquals(expectedOutput.toString(), mainUi.getConsoleOutput().toString());
+    Assertions.assertEquals(expectedOutput.toString(), getOutput());
+  }
+
 
   @ParameterizedTest
   @CsvSource({"'existed@gmail.com', true",
@@ -469,7 +509,9 @@ public class MainUiTest {
       "' ', 'Incorrect id format\n'",
       "'10', 'No student is found for id=10\n'",
       "'15', 'No student is found for id=15\n'",
-      "'3', 'No student is found for id=3\n'"
+      "'3', 'No student is found for id=3\n'",
+      "'1234567890', 'No student is found for id=1234567890\n'",
+      "'99999999999999999999', 'No student is found for id=99999999999999999999\n'"
   })
   public void shouldPrintDifferentMessagesOfFindStudentMenu(String input, String message)
       throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
@@ -928,4 +970,168 @@ public class MainUiTest {
 
     Assertions.assertEquals(expectedOutput, s);
   }
+
+  @Test
+  public void shouldShowTopRowsOfCourseDetails() {
+    TempStudentStorage.addStudent(new UnsavedStudent("Alex", "Hunter", "hunter@gmail.com"));
+    TempStudentStorage.addStudent(new UnsavedStudent("Alexis", "Hunters", "hunters@gmail.com"));
+    TempStudentStorage.addStudent(new UnsavedStudent("Alexa", "Hortensia", "Hortensia@gmail.com"));
+    final int[] subjectsId = new int[]{1, 2, 3, 4};
+    TempStudentStorage.getStudentById(1).get().updatePoints(subjectsId, new int[]{10, 0, 0, 0});
+    TempStudentStorage.getStudentById(2).get().updatePoints(subjectsId, new int[]{30, 0, 0, 0});
+    TempStudentStorage.getStudentById(3).get().updatePoints(subjectsId, new int[]{10, 0, 0, 0});
+    provideInput("java top 2\nJava Top 0\nunknown top 2\nback");
+
+    mainUi.processInput("statistics");
+
+    String output = mainUi.getConsoleOutput().toString();
+    Assertions.assertTrue(output.endsWith("""
+        Java
+        id    points    completed
+        2     30        5.0%
+        1     10        1.7%
+
+        Java
+        id    points    completed
+
+        Unknown course
+        """), output);
+  }
+
+  @Test
+  public void shouldNotifyOnlyNewlyEligibleStudents() {
+    TempStudentStorage.addStudent(new UnsavedStudent("Alex", "Hunter", "hunter@gmail.com"));
+    TempStudentStorage.addStudent(new UnsavedStudent("Alexis", "Hunters", "hunters@gmail.com"));
+    TempStudentStorage.addStudent(new UnsavedStudent("Alexa", "Hortensia", "Hortensia@gmail.com"));
+    final int[] subjectsId = new int[]{1, 2, 3, 4};
+    TempStudentStorage.getStudentById(3).get().updatePoints(subjectsId, new int[]{0, 5, 0, 0});
+    TempStudentStorage.getStudentById(1).get().updatePoints(subjectsId, new int[]{600, 0, 0, 1});
+
+    mainUi.processInput("notify");
+    Assertions.assertEquals("""
+        To: hunter@gmail.com
+        Re: Your Learning Progress
+        Hello, Alex Hunter! You have accomplished our Java course!
+        To: hunter@gmail.com
+        Re: Your Learning Progress
+        Hello, Alex Hunter! You have accomplished our Spring course!
+        To: Hortensia@gmail.com
+        Re: Your Learning Progress
+        Hello, Alexa Hortensia! You have accomplished our DSA course!
+        Total 2 students have been notified.
+        """, mainUi.getConsoleOutput().toString());
+
+    TempStudentStorage.getStudentById(1).get().updatePoints(subjectsId, new int[]{0, 0, 0, 5});
+    mainUi.processInput("notify");
+    Assertions.assertTrue(TempStudentStorage.getStudentById(1).get().isNotified(3));
+    Assertions.assertEquals(0, TempStudentStorage.getNotifications().size());
+    Assertions.assertTrue(mainUi.getConsoleOutput().toString()
+        .endsWith("Total 0 students have been notified.\n"));
+  }
+
+  @Test
+  public void shouldImportStudentsFromFile(@TempDir Path directory) throws IOException {
+    Path file = directory.resolve("students.csv");
+    Files.writeString(file, """
+        name,lastname,email
+        Alex,Hunter,hunter@gmail.com
+        Alexa\tvan der Hunters\talexa@gmail.com
+        Alexis Hortensia Hortensia@gmail.com
+
+        A,Hunter,short@gmail.com
+        Alex,Hunter,HUNTER@gmail.com
+        Alex,Hunter,hunter.gmail.com
+        """);
+    mainUi.processInput("import students " + file);
+
+    String expectedOutput = """
+        Total 3 students have been added.
+
+        Rejected 3 lines:
+        Incorrect first name. - 1 line(s), first at line 6
+        This email is already taken. - 1 line(s), first at line 7
+        Incorrect email. - 1 line(s), first at line 8
+        """;
+    Assertions.assertEquals(expectedOutput, mainUi.getConsoleOutput().toString());
+    Assertions.assertEquals("van der Hunters",
+        TempStudentStorage.getStudentById(2).get().getLastname());
+  }
+
+  @Test
+  public void shouldImportFirstStudentWithEmailDomain(@TempDir Path directory)
+      throws IOException {
+    Path file = directory.resolve("students.csv");
+    Files.writeString(file, """
+        Alex,Hunter,news@hunter.email
+        Alexa,Hunters,alexa@gmail.com
+        """);
+    mainUi.processInput("import students " + file);
+
+    Assertions.assertEquals("Total 2 students have been added.\n",
+        mainUi.getConsoleOutput().toString());
+    Assertions.assertEquals("news@hunter.email",
+        TempStudentStorage.getStudentById(1).get().getEmail());
+  }
+
+  @Test
+  public void shouldRejectUndecodableLongAndQuotedLinesAndKeepImporting(@TempDir Path directory)
+      throws IOException {
+    Path file = directory.resolve("students.csv");
+    ByteArrayOutputStream content = new ByteArrayOutputStream();
+    content.writeBytes("Alex,Hunter,hunter@gmail.com\nAlex,Hun".getBytes(StandardCharsets.UTF_8));
+    content.write(0xFF);
+    content.writeBytes(("ter,second@gmail.com\n" + "a".repeat(5000) + "\n"
+        + "\"Alexa\",\"van der Hunters\",\"alexa@gmail.com\"\n"
+        + "Alex,\"Hunter, Jr\",jr@gmail.com\n").getBytes(StandardCharsets.UTF_8));
+    Files.write(file, content.toByteArray());
+    mainUi.processInput("import students " + file);
+
+    String expectedOutput = """
+        Total 2 students have been added.
+
+        Rejected 3 lines:
+        Line is not valid UTF-8. - 1 line(s), first at line 2
+        Line is too long. - 1 line(s), first at line 3
+        Incorrect last name. - 1 line(s), first at line 5
+        """;
+    Assertions.assertEquals(expectedOutput, mainUi.getConsoleOutput().toString());
+    Assertions.assertEquals("van der Hunters",
+        TempStudentStorage.getStudentById(2).get().getLastname());
+  }
+
+  @Test
+  public void shouldReportUnreadableImportFile(@TempDir Path directory) {
+    Path file = directory.resolve("missing.csv");
+    mainUi.processInput("import students " + file);
+    Assertions.assertEquals("Cannot read file " + file + "\n",
+        mainUi.getConsoleOutput().toString());
+  }
+
+  @Test
+  public void shouldImportPointsFromFile(@TempDir Path directory) throws IOException {
+    TempStudentStorage.addStudent(new UnsavedStudent("Alex", "Hunter", "hunter@gmail.com"));
+    TempStudentStorage.addStudent(new UnsavedStudent("Alexa", "Hunters", "alexa@gmail.com"));
+    Path file = directory.resolve("points.txt");
+    Files.writeString(file, "1 10 0 0 5\n2 1 2 3 4\r\n\n1 1 1 1\nabc 1 1 1 1\n5 1 1 1 1\n1 5 0 0 0");
+    mainUi.processInput("import points " + file);
+
+    String expectedOutput = """
+        Incorrect points format
+
+        No student is found for id=abc
+
+        No student is found for id=5
+
+        Points updated for 3 lines.
+
+        Rejected 3 lines:
+        Incorrect points format - 1 line(s), first at line 4
+        No student is found - 2 line(s), first at line 5
+        """;
+    Assertions.assertTrue(mainUi.getConsoleOutput().toString().startsWith(expectedOutput));
+    Assertions.assertEquals(15,
+        TempStudentStorage.getStudentById(1).get().getAcademicSubjects().get(0).getPoint());
+    Assertions.assertEquals(4,
+        TempStudentStorage.getStudentById(2).get().getAcademicSubjects().get(3).getPoint());
+  }
 }
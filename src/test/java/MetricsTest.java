@@ -0,0 +1,182 @@
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import db.TempStudentStorage;
+import enums.Command;
+import input.UserInputService;
+import metrics.LatencyHistogram;
+import metrics.Metrics;
+import session.Session;
+import ui.MainUi;
+
+public class MetricsTest {
+
+  private MainUi mainUi;
+
+  @BeforeEach
+  public void init() {
+    mainUi = new MainUi(new Session());
+  }
+
+  @AfterEach
+  public void restoreMetricsAndStorage() throws NoSuchFieldException, IllegalAccessException {
+    Metrics.setEnabled(false);
+    Metrics.reset();
+    TempStudentStorage.setStudents(new ArrayList<>());
+    Field studentsId = TempStudentStorage.class.getDeclaredField("studentsId");
+    studentsId.setAccessible(true);
+    ((AtomicInteger) studentsId.get(TempStudentStorage.class)).set(1);
+  }
+
+  private void provideInput(String input) {
+    mainUi.setInputReader(new UserInputService(
+        new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8))));
+  }
+
+  @Test
+  public void histogramShouldKeepPercentilesWithinBucketPrecision() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long value = 1; value <= 100_000; value++) {
+      histogram.record(value);
+    }
+
+    Assertions.assertEquals(100_000, histogram.getCount());
+    Assertions.assertEquals(100_000, histogram.getMax());
+    Assertions.assertEquals(5_000_050_000L, histogram.getTotal());
+    Assertions.assertEquals(50_000, histogram.getValueAtPercentile(50), 50_000 / 32.0);
+    Assertions.assertEquals(99_000, histogram.getValueAtPercentile(99), 99_000 / 32.0);
+    Assertions.assertEquals(100_000, histogram.getValueAtPercentile(100));
+  }
+
+  @Test
+  public void shouldRecordCommandsAndLineOutcomes() {
+    Metrics.setEnabled(true);
+    provideInput("""
+        Alex Hunter hunter@gmail.com
+        Alexa Hunters hunter@gmail.com
+        Alexa Hunters hunter.gmail.com
+        back
+        1 1 2 3 4
+        2 1 2 3 4
+        back
+        """);
+    mainUi.processCommand(Command.ADD_STUDENTS);
+    mainUi.processCommand(Command.ADD_POINTS);
+    mainUi.processCommand(Command.METRICS);
+
+    String report = mainUi.getConsoleOutput().toString();
+    Assertions.assertTrue(report.contains("Line outcome"));
+    Assertions.assertTrue(report.matches("(?s).*add students +1 .*"));
+    Assertions.assertTrue(
+        report.matches("(?s).*add students: The student has been added\\. +1 .*"));
+    Assertions.assertTrue(report.matches("(?s).*add students: Incorrect email\\. +1 .*"));
+    Assertions.assertTrue(
+        report.matches("(?s).*add students: This email is already taken\\. +1 .*"));
+    Assertions.assertTrue(report.matches("(?s).*add points: Points updated\\. +1 .*"));
+    Assertions.assertTrue(report.matches("(?s).*add points: No student is found +1 .*"));
+  }
+
+  @Test
+  public void shouldNotRecordWhenDisabled() {
+    provideInput("Alex Hunter hunter@gmail.com\nback\n");
+    mainUi.processCommand(Command.ADD_STUDENTS);
+    mainUi.processCommand(Command.METRICS);
+
+    Assertions.assertTrue(mainUi.getConsoleOutput().toString()
+        .endsWith("Metrics are disabled, start with --metrics on.\n"));
+    Metrics.setEnabled(true);
+    Assertions.assertFalse(Metrics.getReport().contains("add students"));
+  }
+
+  @Test
+  public void shouldExposeMetricsThroughJmx() throws JMException {
+    Metrics.setEnabled(true);
+    Metrics.registerMBean();
+    provideInput("back\n");
+    mainUi.processCommand(Command.FIND);
+
+    ObjectName name = new ObjectName(Metrics.OBJECT_NAME);
+    TabularData counts = (TabularData) ManagementFactory.getPlatformMBeanServer()
+        .getAttribute(name, "CommandCounts");
+    Assertions.assertEquals(1L,
+        counts.get(new Object[]{Command.FIND.getDescription()}).get("value"));
+  }
+
+  //ввод, в котором вторая часть приходит через delayMillis после первой
+  private static InputStream delayedInput(String first, String second, long delayMillis) {
+    return new SequenceInputStream(
+        new ByteArrayInputStream(first.getBytes(StandardCharsets.UTF_8)), new InputStream() {
+          private InputStream rest;
+
+          @Override
+          public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) < 0 ? -1 : b[0];
+          }
+
+          @Override
+          public int read(byte[] b, int off, int len) throws IOException {
+            if (rest == null) {
+              try {
+                Thread.sleep(delayMillis);
+              } catch (InterruptedException e) {
+                throw new IOException(e);
+              }
+              rest = new ByteArrayInputStream(second.getBytes(StandardCharsets.UTF_8));
+            }
+            return rest.read(b, off, len);
+          }
+        });
+  }
+
+  @Test
+  public void shouldNotCountInputWaitInCommandLatency() throws JMException {
+    Metrics.setEnabled(true);
+    Metrics.registerMBean();
+    mainUi.setInputReader(
+        new UserInputService(delayedInput("Alex Hunter hunter@gmail.com\n", "back\n", 300)));
+    mainUi.processCommand(Command.ADD_STUDENTS);
+
+    TabularData latency = (TabularData) ManagementFactory.getPlatformMBeanServer()
+        .getAttribute(new ObjectName(Metrics.OBJECT_NAME), "CommandP99Nanos");
+    long nanos = (Long) latency.get(new Object[]{Command.ADD_STUDENTS.getDescription()})
+        .get("value");
+    Assertions.assertTrue(nanos < 300_000_000L, "latency " + nanos);
+  }
+
+  @Test
+  public void shouldRecordImportedLines(@TempDir Path directory) throws IOException {
+    Metrics.setEnabled(true);
+    Path students = directory.resolve("students.csv");
+    Files.writeString(students, "Alex,Hunter,hunter@gmail.com\nAlex,Hunter,hunter.gmail.com\n");
+    Path points = directory.resolve("points.txt");
+    Files.writeString(points, "1 1 2 3 4\n7 1 2 3 4\n1 1 2\n");
+    mainUi.processInput("import students " + students);
+    mainUi.processInput("import points " + points);
+
+    String report = Metrics.getReport();
+    Assertions.assertTrue(
+        report.matches("(?s).*import students: The student has been added\\. +1 .*"));
+    Assertions.assertTrue(report.matches("(?s).*import students: Incorrect email\\. +1 .*"));
+    Assertions.assertTrue(report.matches("(?s).*import points: Points updated\\. +1 .*"));
+    Assertions.assertTrue(report.matches("(?s).*import points: No student is found +1 .*"));
+    Assertions.assertTrue(
+        report.matches("(?s).*import points: Incorrect points format +1 .*"));
+  }
+}
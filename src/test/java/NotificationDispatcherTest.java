@@ -0,0 +1,134 @@
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import db.TempStudentStorage;
+import entities.UnsavedStudent;
+import notification.EmlDirectorySink;
+import notification.Message;
+import notification.NotificationDispatcher;
+import notification.NotificationSink;
+import notification.Outbox;
+import session.Session;
+import ui.MainUi;
+
+public class NotificationDispatcherTest {
+
+  @TempDir
+  Path directory;
+
+  @AfterEach
+  public void restoreStudentsStorage()
+      throws NoSuchFieldException, IllegalAccessException, IOException {
+    NotificationDispatcher.closeCurrent();
+    TempStudentStorage.setStudents(new ArrayList<>());
+    Field studentsId = TempStudentStorage.class.getDeclaredField("studentsId");
+    studentsId.setAccessible(true);
+    ((AtomicInteger) studentsId.get(TempStudentStorage.class)).set(1);
+  }
+
+  private static long countFiles(Path mail) throws IOException {
+    try (Stream<Path> files = Files.list(mail)) {
+      return files.filter(file -> file.toString().endsWith(".eml")).count();
+    }
+  }
+
+  @Test
+  public void shouldRetryFailedBatchesUntilDelivered() throws IOException, InterruptedException {
+    Path mail = directory.resolve("mail");
+    EmlDirectorySink emlSink = new EmlDirectorySink(mail);
+    AtomicInteger failures = new AtomicInteger(3);
+    NotificationSink flakySink = batch -> {
+      if (failures.getAndDecrement() > 0) {
+        throw new IOException("Mail server is unavailable");
+      }
+      emlSink.deliver(batch);
+    };
+    NotificationDispatcher dispatcher = new NotificationDispatcher(
+        Outbox.open(directory.resolve("outbox")), flakySink, 2, 10, 1);
+    for (int i = 0; i < 95; i++) {
+      dispatcher.submit("student" + i + "@gmail.com", "Your Learning Progress", "Hello!");
+    }
+    dispatcher.flush();
+
+    Assertions.assertTrue(dispatcher.awaitDelivered(10_000));
+    Assertions.assertEquals(95, dispatcher.getDelivered());
+    Assertions.assertEquals(10, dispatcher.getBatches());
+    Assertions.assertEquals(3, dispatcher.getFailedAttempts());
+    Assertions.assertEquals(0, dispatcher.getPending());
+    Assertions.assertEquals(95, countFiles(mail));
+    Assertions.assertTrue(Files.readString(mail.resolve("0.eml"))
+        .startsWith("To: student0@gmail.com\r\nSubject: Your Learning Progress\r\n"));
+    dispatcher.close();
+  }
+
+  @Test
+  public void shouldKeepReadingOutboxAfterReadFailure() throws IOException, InterruptedException {
+    Path outbox = directory.resolve("outbox");
+    Files.createDirectories(outbox);
+    //запись с id 0, в которой длина первой строки больше самой записи
+    ByteBuffer record = ByteBuffer.allocate(Integer.BYTES + Long.BYTES + Short.BYTES)
+        .putInt(Long.BYTES + Short.BYTES).putLong(0).putShort((short) 100);
+    Files.write(outbox.resolve("outbox.log"), record.array());
+    NotificationDispatcher dispatcher = new NotificationDispatcher(Outbox.open(outbox),
+        batch -> { }, 1, 10, 1);
+
+    for (int i = 0; i < 1_000 && dispatcher.getFailedAttempts() < 3; i++) {
+      Thread.sleep(10);
+    }
+    Assertions.assertTrue(dispatcher.getFailedAttempts() >= 3);
+    Assertions.assertEquals(0, dispatcher.getDelivered());
+    dispatcher.close();
+  }
+
+  @Test
+  public void shouldRedeliverUnacknowledgedMessagesAfterRestart()
+      throws IOException, InterruptedException {
+    Path outboxDirectory = directory.resolve("outbox");
+    Outbox outbox = Outbox.open(outboxDirectory);
+    for (int i = 0; i < 5; i++) {
+      outbox.append("student" + i + "@gmail.com", "Your Learning Progress", "Hello!");
+    }
+    outbox.flush();
+    List<Message> batch = outbox.take(2);
+    outbox.acknowledge(batch.get(0).getId(), batch.get(1).getId());
+    //третье сообщение выдано, но не подтверждено
+    outbox.take(1);
+    outbox.close();
+
+    outbox = Outbox.open(outboxDirectory);
+    Assertions.assertEquals(3, outbox.getPending());
+    List<Message> redelivered = outbox.take(10);
+    Assertions.assertEquals(3, redelivered.size());
+    Assertions.assertEquals(2, redelivered.get(0).getId());
+    Assertions.assertEquals("student4@gmail.com", redelivered.get(2).getTo());
+    Assertions.assertEquals(5, outbox.append("late@gmail.com", "Subject", "Body"));
+    outbox.close();
+  }
+
+  @Test
+  public void shouldSendNotificationsThroughOutbox() throws IOException, InterruptedException {
+    NotificationDispatcher dispatcher = NotificationDispatcher.open(directory);
+    TempStudentStorage.addStudent(new UnsavedStudent("Alex", "Hunter", "hunter@gmail.com"));
+    TempStudentStorage.getStudentById(1).get()
+        .updatePoints(new int[]{1, 2, 3, 4}, new int[]{600, 0, 0, 0});
+    MainUi mainUi = new MainUi(new Session());
+
+    mainUi.processInput("notify");
+
+    Assertions.assertTrue(mainUi.getConsoleOutput().toString()
+        .startsWith("Total 1 students have been notified.\n"));
+    Assertions.assertTrue(dispatcher.awaitDelivered(10_000));
+    Assertions.assertTrue(Files.readString(directory.resolve("mail").resolve("0.eml"))
+        .contains("Hello, Alex Hunter! You have accomplished our Java course!"));
+  }
+}
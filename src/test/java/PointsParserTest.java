@@ -0,0 +1,53 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import enums.PointsParseResult;
+import input.PointsParser;
+
+public class PointsParserTest {
+
+  @ParameterizedTest
+  @CsvSource({
+      "'1 1 2 1 1', VALID",
+      "'12 4 3 2 1', VALID",
+      "'1\t4 3 2 1', VALID",
+      "'abc 4 3 2 1', UNKNOWN_ID",
+      "'99999999999 4 3 2 1', UNKNOWN_ID",
+      "'1 1 1 1', INCORRECT_FORMAT",
+      "'1  1 1 1 1', INCORRECT_FORMAT",
+      "'1 1 1 1 1 1', INCORRECT_FORMAT",
+      "'1 1 1 1 O', INCORRECT_FORMAT",
+      "'1 -1 1 1 1', INCORRECT_FORMAT",
+      "'1 1 1 1 99999999999', INCORRECT_FORMAT",
+      "'s-1 1 1 1 1', INCORRECT_FORMAT",
+      "'', INCORRECT_FORMAT"
+  })
+  public void shouldParseLikePointsPattern(String input, PointsParseResult expected) {
+    Assertions.assertEquals(expected, new PointsParser().parse(input));
+  }
+
+  @Test
+  public void shouldParseIdAndPointsInsideRange() {
+    PointsParser parser = new PointsParser();
+    String buffer = "garbage\n 7 10 20 30 40 \nrest";
+
+    Assertions.assertEquals(PointsParseResult.VALID, parser.parse(buffer, 8, 23));
+    Assertions.assertEquals(7, parser.getId());
+    Assertions.assertArrayEquals(new int[]{10, 20, 30, 40}, parser.getPoints());
+  }
+
+  @Test
+  public void shouldParseAsManyPointsAsCourses() {
+    PointsParser parser = new PointsParser(64);
+    StringBuilder line = new StringBuilder("3");
+    for (int course = 0; course < 64; course++) {
+      line.append(' ').append(course);
+    }
+
+    Assertions.assertEquals(PointsParseResult.VALID, parser.parse(line));
+    Assertions.assertEquals(63, parser.getPoints()[63]);
+    Assertions.assertEquals(PointsParseResult.INCORRECT_FORMAT, parser.parse(line + " 1"));
+    Assertions.assertEquals(PointsParseResult.INCORRECT_FORMAT, new PointsParser().parse(line));
+  }
+}
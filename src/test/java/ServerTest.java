@@ -0,0 +1,104 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import db.TempStudentStorage;
+import server.TrackerServer;
+
+public class ServerTest {
+
+  private TrackerServer server;
+
+  @BeforeEach
+  public void startServer() throws IOException {
+    server = TrackerServer.start(0);
+  }
+
+  @AfterEach
+  public void stopServer() throws IOException, NoSuchFieldException, IllegalAccessException {
+    server.close();
+    TempStudentStorage.setStudents(new ArrayList<>());
+    Field studentsId = TempStudentStorage.class.getDeclaredField("studentsId");
+    studentsId.setAccessible(true);
+    ((AtomicInteger) studentsId.get(TempStudentStorage.class)).set(1);
+  }
+
+  //отправляет весь сценарий и читает ответ до закрытия соединения сервером
+  private String runClient(String script) throws IOException {
+    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+      OutputStream output = socket.getOutputStream();
+      output.write(script.getBytes(StandardCharsets.UTF_8));
+      output.flush();
+      socket.shutdownOutput();
+      InputStream input = socket.getInputStream();
+      return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+
+  @Test
+  public void shouldServeClientSession() throws IOException {
+    String output = runClient("add students\nAlex Hunter hunter@gmail.com\nback\nexit\n");
+
+    Assertions.assertEquals("""
+        Learning Progress Tracker
+        Enter student credentials or 'back' to return:
+        The student has been added.
+        Total 1 students have been added.
+        Bye!""", output.trim());
+    Assertions.assertTrue(TempStudentStorage.getStudentByEmail("hunter@gmail.com").isPresent());
+  }
+
+  @Test
+  public void shouldEndSessionWhenClientDisconnects() throws IOException {
+    String output = runClient("add students\nAlex Hunter hunter@gmail.com\n");
+
+    Assertions.assertTrue(output.contains("The student has been added."));
+    Assertions.assertEquals(1, TempStudentStorage.getStudents().size());
+  }
+
+  @Test
+  public void shouldServeClientsConcurrently() throws Exception {
+    int clients = 16;
+    ExecutorService executor = Executors.newFixedThreadPool(clients);
+    try {
+      List<Future<String>> outputs = new ArrayList<>();
+      for (int i = 0; i < clients; i++) {
+        String email = "student" + i + "@gmail.com";
+        outputs.add(executor.submit(
+            () -> runClient("add students\nAlex Hunter " + email + "\nback\nexit\n")));
+      }
+      for (Future<String> output : outputs) {
+        Assertions.assertTrue(output.get().trim().endsWith("Bye!"));
+      }
+    } finally {
+      executor.shutdown();
+    }
+    Assertions.assertEquals(clients, TempStudentStorage.getStudents().size());
+  }
+
+  @Test
+  public void shouldKeepSessionAfterCommandFailure() throws Exception {
+    //статистика недоступна, поэтому команда statistics падает с исключением
+    Field statistics = TempStudentStorage.class.getDeclaredField("statistics");
+    statistics.setAccessible(true);
+    statistics.set(null, null);
+
+    String output = runClient("statistics\nlist\nexit\n");
+
+    Assertions.assertTrue(output.contains("Error: the command has failed, try again."));
+    Assertions.assertTrue(output.trim().endsWith("No students found\nBye!"));
+  }
+}
@@ -4,11 +4,13 @@ import java.io.InputStream;
 import java.io.PrintStream;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import input.UserInputService;
 import session.Session;
+import ui.BufferedOutputSink;
 
 public class SessionTest {
 
@@ -51,4 +53,62 @@ public class SessionTest {
     String expectedOutput = "Learning Progress Tracker\nBye!";
     Assertions.assertEquals(expectedOutput, output.toString());
   }
+
+  @Test
+  public void shouldWriteBufferedOutputOncePerCommand() {
+    InputStream systemIn = System.in;
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    BufferedOutputSink sink = new BufferedOutputSink(output, StandardCharsets.UTF_8, 1 << 16);
+    System.setIn(new ByteArrayInputStream("list\nexit\n".getBytes()));
+    Session bufferedSession = new Session(sink);
+    bufferedSession.getUi().setInputReader(new UserInputService());
+
+    sink.print("Pending");
+    Assertions.assertEquals(0, output.size());
+    sink.flush();
+    Assertions.assertEquals("Pending", output.toString());
+
+    output.reset();
+    bufferedSession.getUi().showUi();
+    Assertions.assertEquals("No students found\n", output.toString());
+    bufferedSession.getUi().showUi();
+    System.setIn(systemIn);
+    Assertions.assertEquals("No students found\nBye!", output.toString());
+    Assertions.assertTrue(bufferedSession.isClosed());
+  }
+
+  @Test
+  public void shouldFlushBufferedOutputBeforeWaitingForInput() {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    BufferedOutputSink sink = new BufferedOutputSink(output, StandardCharsets.UTF_8, 1 << 16);
+    StringBuilder shownBeforeSecondLine = new StringBuilder();
+    //вторая строка "приходит" только после того, как первая прочитана
+    InputStream input = new InputStream() {
+      private final byte[][] chunks = {"add students\n".getBytes(), "back\n".getBytes()};
+      private int chunk;
+
+      @Override
+      public int read() {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public int read(byte[] buffer, int offset, int length) {
+        if (chunk == chunks.length) {
+          return -1;
+        }
+        if (chunk == 1) {
+          shownBeforeSecondLine.append(output);
+        }
+        byte[] bytes = chunks[chunk++];
+        System.arraycopy(bytes, 0, buffer, offset, bytes.length);
+        return bytes.length;
+      }
+    };
+    Session bufferedSession = new Session(new UserInputService(input), sink);
+
+    bufferedSession.getUi().showUi();
+    Assertions.assertEquals("Enter student credentials or 'back' to return:\n",
+        shownBeforeSecondLine.toString());
+  }
 }
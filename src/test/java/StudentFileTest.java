@@ -0,0 +1,131 @@
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import db.StudentFile;
+import db.TempStudentStorage;
+import entities.Student;
+import entities.UnsavedStudent;
+
+public class StudentFileTest {
+
+  @TempDir
+  Path directory;
+
+  @AfterEach
+  public void restoreStudentsStorage()
+      throws NoSuchFieldException, IllegalAccessException, IOException {
+    TempStudentStorage.closeStore();
+    TempStudentStorage.setStudents(new ArrayList<>());
+    Field studentsId = TempStudentStorage.class.getDeclaredField("studentsId");
+    studentsId.setAccessible(true);
+    ((AtomicInteger) studentsId.get(TempStudentStorage.class)).set(1);
+  }
+
+  @Test
+  public void shouldKeepStudentsPointsAndNotificationsInFile() throws IOException {
+    Path store = directory.resolve("students.db");
+    TempStudentStorage.openStore(store);
+    TempStudentStorage.addStudent(new UnsavedStudent("Alex", "Hunter", "hunter@gmail.com"));
+    TempStudentStorage.addStudent(new UnsavedStudent("Alex", "Hunter", "second@gmail.com"));
+    Assertions.assertFalse(
+        TempStudentStorage.addStudent(new UnsavedStudent("Alex", "Hunter", "HUNTER@gmail.com")));
+    TempStudentStorage.getStudentById(1).get().addPoints(new int[]{10, 0, 0, 700});
+    TempStudentStorage.getStudentById(2).get().addPoints(new int[]{0, 3, 0, 0});
+    TempStudentStorage.getStudentById(2).get().addPoint(1, 1);
+    TempStudentStorage.getStudentById(1).get().setNotified(3);
+    TempStudentStorage.closeStore();
+    Assertions.assertTrue(TempStudentStorage.getStudents().isEmpty());
+
+    TempStudentStorage.openStore(store);
+    List<Student> students = TempStudentStorage.getStudents();
+    Assertions.assertEquals(2, students.size());
+    Student first = TempStudentStorage.getStudentByEmail("Hunter@gmail.com").get();
+    Assertions.assertEquals(1, first.getId());
+    Assertions.assertEquals("Alex", first.getName());
+    Assertions.assertEquals("Hunter", first.getLastname());
+    Assertions.assertEquals(10, first.getPoint(0));
+    Assertions.assertEquals(550, first.getPoint(3));
+    Assertions.assertTrue(first.isNotified(3));
+    Assertions.assertFalse(first.isNotified(0));
+    Assertions.assertEquals(first, students.get(0));
+    Assertions.assertEquals("second@gmail.com", students.get(1).getEmail());
+    Assertions.assertEquals(4, students.get(1).getPoint(1));
+    Assertions.assertEquals(2, TempStudentStorage.getStatistics().getEnrolledStudents());
+    //сдачи по баллам не восстановить, они хранятся в записях
+    Assertions.assertEquals(1, TempStudentStorage.getStatistics().getSubmissions(0));
+    Assertions.assertEquals(2, TempStudentStorage.getStatistics().getSubmissions(1));
+    Assertions.assertEquals(1, TempStudentStorage.getStatistics().getSubmissions(3));
+    Assertions.assertEquals(1, TempStudentStorage.getLeaderboard().getSize(3));
+    Assertions.assertEquals(2, TempStudentStorage.getNotifications().size());
+
+    Student third = new UnsavedStudent("Kate", "Smith", "kate@gmail.com");
+    TempStudentStorage.addStudent(third);
+    third.addPoint(2, 5);
+    Assertions.assertEquals(3, third.getId());
+    Assertions.assertEquals(5, TempStudentStorage.getStudentById(3).get().getPoint(2));
+    Assertions.assertTrue(TempStudentStorage.getStudentById(4).isEmpty());
+  }
+
+  @Test
+  public void shouldRejectFileWithOtherCourses() throws IOException {
+    Path store = directory.resolve("students.db");
+    StudentFile.open(store, Student.getCoursesCount()).close();
+
+    Assertions.assertThrows(IOException.class,
+        () -> StudentFile.open(store, Student.getCoursesCount() + 1));
+    Files.writeString(store, "not a student file");
+    Assertions.assertThrows(IOException.class,
+        () -> StudentFile.open(store, Student.getCoursesCount()));
+  }
+
+  @Test
+  public void shouldStoreNotificationsOfManyCourses() throws IOException {
+    try (StudentFile file = StudentFile.open(directory.resolve("wide.db"), 70)) {
+      int slot = file.append(new Student(0, "Alex", "Hunter", "hunter@gmail.com"));
+      file.setPoint(slot, 69, 12);
+      file.setNotified(slot, 69);
+      file.setNotified(slot, 1);
+
+      Assertions.assertEquals(12, file.getPoint(slot, 69));
+      Assertions.assertTrue(file.isNotified(slot, 69));
+      Assertions.assertTrue(file.isNotified(slot, 1));
+      Assertions.assertFalse(file.isNotified(slot, 5));
+      Assertions.assertEquals(1, file.getId(slot));
+    }
+  }
+
+  //конец области строк из заголовка файла
+  private static long stringsEnd(Path file) throws IOException {
+    return ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN).getLong(16);
+  }
+
+  @Test
+  public void shouldReuseNamesAndStudentObjectsAfterReopen() throws IOException {
+    Path store = directory.resolve("students.db");
+    try (StudentFile file = StudentFile.open(store, Student.getCoursesCount())) {
+      file.append(new Student(0, "Alex", "Hunter", "first@gmail.com"));
+    }
+    long firstEnd = stringsEnd(store);
+
+    try (StudentFile file = StudentFile.open(store, Student.getCoursesCount())) {
+      file.append(new Student(0, "Alex", "Hunter", "other@gmail.com"));
+
+      Assertions.assertEquals("Alex", file.getName(1));
+      Assertions.assertEquals("Hunter", file.getLastname(1));
+      Assertions.assertSame(file.getStudent(1), file.getStudent(1));
+    }
+    //дописан только email второй записи
+    Assertions.assertEquals(firstEnd + Short.BYTES + "other@gmail.com".length(),
+        stringsEnd(store));
+  }
+}
@@ -0,0 +1,77 @@
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import db.TempStudentStorage;
+import entities.Student;
+import entities.UnsavedStudent;
+
+public class TempStudentStorageTest {
+
+  @AfterEach
+  public void restoreStudentsStorage() throws NoSuchFieldException, IllegalAccessException {
+    TempStudentStorage.setStudents(new ArrayList<>());
+    Field studentsId = TempStudentStorage.class.getDeclaredField("studentsId");
+    studentsId.setAccessible(true);
+    ((AtomicInteger) studentsId.get(TempStudentStorage.class)).set(1);
+  }
+
+  @Test
+  public void shouldFindAddedStudentById() {
+    UnsavedStudent student = new UnsavedStudent("Alex", "Hunter", "hunter@gmail.com");
+    TempStudentStorage.addStudent(student);
+    Assertions.assertSame(student, TempStudentStorage.getStudentById(1).get());
+    Assertions.assertTrue(TempStudentStorage.getStudentById(2).isEmpty());
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+      "'hunter@gmail.com', true",
+      "'Hunter@Gmail.com', true",
+      "'HUNTER@GMAIL.COM', true",
+      "'hunter@mail.com', false"
+  })
+  public void shouldCheckEmailIgnoringCase(String email, boolean isRegistered) {
+    TempStudentStorage.addStudent(new UnsavedStudent("Alex", "Hunter", "hunter@gmail.com"));
+    Assertions.assertEquals(isRegistered, TempStudentStorage.isRegisteredEmail(email));
+  }
+
+  @Test
+  public void shouldNotAddStudentWithTakenEmail() {
+    Assertions.assertTrue(
+        TempStudentStorage.addStudent(new UnsavedStudent("Alex", "Hunter", "hunter@gmail.com")));
+    Assertions.assertFalse(
+        TempStudentStorage.addStudent(new UnsavedStudent("Alexa", "Hunters", "HUNTER@gmail.com")));
+    Assertions.assertEquals(1, TempStudentStorage.getStudents().size());
+  }
+
+  @Test
+  public void shouldRebuildIndexesOnSetStudents() {
+    ArrayList<Student> students = new ArrayList<>();
+    students.add(new Student(7, "Alex", "Hunter", "hunter@gmail.com"));
+    TempStudentStorage.setStudents(students);
+
+    Assertions.assertTrue(TempStudentStorage.getStudentById(7).isPresent());
+    Assertions.assertTrue(TempStudentStorage.getStudentByEmail("hunter@gmail.com").isPresent());
+  }
+
+  @Test
+  public void shouldQueueNotificationsForLargeIdsAfterDrain() {
+    Student student = new Student(600_000_000, "Alex", "Hunter", "hunter@gmail.com");
+    student.addPoint(1, 5);
+    TempStudentStorage.setStudents(new ArrayList<>(List.of(student)));
+    AtomicInteger sent = new AtomicInteger();
+
+    Assertions.assertEquals(1, TempStudentStorage.getNotifications().drain(
+        (notified, course) -> sent.incrementAndGet()));
+    TempStudentStorage.getStudentById(600_000_000).get().addPoint(3, 5);
+    Assertions.assertEquals(1, TempStudentStorage.getNotifications().size());
+    TempStudentStorage.getNotifications().drain((notified, course) -> sent.incrementAndGet());
+    Assertions.assertEquals(2, sent.get());
+  }
+}
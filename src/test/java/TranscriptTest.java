@@ -0,0 +1,41 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import ui.FullTranscript;
+import ui.NoTranscript;
+import ui.RingTranscript;
+import ui.Transcript;
+
+public class TranscriptTest {
+
+  @Test
+  public void fullTranscriptShouldJoinOutputWithNewLines() {
+    Transcript transcript = new FullTranscript();
+    transcript.add("Students:\n1\n");
+    transcript.add("Bye!");
+    Assertions.assertEquals("Students:\n1\n\nBye!", transcript.toString());
+    transcript.clear();
+    Assertions.assertEquals("", transcript.toString());
+  }
+
+  @Test
+  public void ringTranscriptShouldKeepOnlyLastCharacters() {
+    Transcript transcript = new RingTranscript(8);
+    transcript.add("abc");
+    transcript.add("de");
+    Assertions.assertEquals("abc\nde", transcript.toString());
+    transcript.add("fghij");
+    Assertions.assertEquals("de\nfghij", transcript.toString());
+    transcript.add("0123456789");
+    Assertions.assertEquals("23456789", transcript.toString());
+    transcript.clear();
+    transcript.add("x");
+    Assertions.assertEquals("x", transcript.toString());
+  }
+
+  @Test
+  public void noTranscriptShouldKeepNothing() {
+    Transcript transcript = new NoTranscript();
+    transcript.add("Bye!");
+    Assertions.assertEquals("", transcript.toString());
+  }
+}
@@ -1,8 +1,14 @@
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import enums.PointsParseResult;
+import input.LineReader;
+import input.PipelinedInputService;
+import input.PointsLine;
 import input.UserInputService;
 
 public class UserInputServiceTest {
@@ -33,4 +39,42 @@ public class UserInputServiceTest {
     Assertions.assertEquals("First input", inputReader.getStringInput());
   }
 
+  @Test
+  public void lineReaderShouldSplitLinesAcrossBufferRefills() throws IOException {
+    LineReader reader = new LineReader(new ByteArrayInputStream(
+        "first line\r\n\nстрока в UTF-8\nlast".getBytes(StandardCharsets.UTF_8)), 4);
+    Assertions.assertEquals("first line", reader.readLine());
+    Assertions.assertEquals("", reader.readLine());
+    Assertions.assertEquals("строка в UTF-8", reader.readLine());
+    Assertions.assertEquals("last", reader.readLine());
+    Assertions.assertNull(reader.readLine());
+  }
+
+  @Test
+  public void pipelinedInputShouldKeepOrderAndParsePoints() {
+    StringBuilder input = new StringBuilder("add points\n");
+    for (int i = 1; i <= 1000; i++) {
+      input.append(i).append(" 1 2 3 4\n");
+    }
+    input.append("  abc 1 2 3 4\nback\nexit");
+    UserInputService inputReader = new PipelinedInputService(
+        new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8)), 64, 2);
+
+    Assertions.assertEquals("add points", inputReader.getStringInput());
+    for (int i = 1; i <= 1000; i++) {
+      PointsLine line = inputReader.getPointsInput();
+      Assertions.assertEquals(PointsParseResult.VALID, line.getResult());
+      Assertions.assertEquals(i, line.getId());
+      Assertions.assertArrayEquals(new int[]{1, 2, 3, 4}, line.getPoints());
+    }
+    PointsLine unknownId = inputReader.getPointsInput();
+    Assertions.assertEquals(PointsParseResult.UNKNOWN_ID, unknownId.getResult());
+    Assertions.assertEquals("abc", unknownId.getIdText());
+    Assertions.assertEquals(PointsParseResult.INCORRECT_FORMAT,
+        inputReader.getPointsInput().getResult());
+    Assertions.assertEquals("exit", inputReader.getStringInput());
+    Assertions.assertFalse(inputReader.hasInput());
+    Assertions.assertEquals("", inputReader.getStringInput());
+  }
+
 }
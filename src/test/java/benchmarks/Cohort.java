@@ -0,0 +1,59 @@
+package benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import db.TempStudentStorage;
+import entities.Student;
+import entities.UnsavedStudent;
+import input.UserInputService;
+
+//общие заготовки бенчмарков: когорта студентов в хранилище и сценарии ввода
+final class Cohort {
+
+  static final int[] SUBJECTS_ID = new int[]{1, 2, 3, 4};
+  static final PrintStream NULL_OUTPUT = new PrintStream(OutputStream.nullOutputStream());
+
+  private Cohort() {
+  }
+
+  //очищает хранилище и регистрирует size студентов с id 1..size и случайными баллами
+  static void populate(int size, long seed) throws ReflectiveOperationException {
+    TempStudentStorage.setStudents(new ArrayList<>());
+    Field studentsId = TempStudentStorage.class.getDeclaredField("studentsId");
+    studentsId.setAccessible(true);
+    ((AtomicInteger) studentsId.get(TempStudentStorage.class)).set(1);
+    SplittableRandom random = new SplittableRandom(seed);
+    int[] points = new int[SUBJECTS_ID.length];
+    for (int i = 1; i <= size; i++) {
+      Student student = new UnsavedStudent("Name", "Lastname", "student" + i + "@mail.com");
+      TempStudentStorage.addStudent(student);
+      for (int course = 0; course < points.length; course++) {
+        points[course] = random.nextInt(4) == 0 ? 0 : random.nextInt(1, 120);
+      }
+      student.updatePoints(SUBJECTS_ID, points);
+    }
+  }
+
+  //ввод по кругу из заранее заданных строк
+  static class ScriptedInput extends UserInputService {
+
+    private String[] lines = new String[0];
+    private int next;
+
+    void setScript(String... lines) {
+      this.lines = lines;
+      next = 0;
+    }
+
+    @Override
+    public String getStringInput() {
+      String line = lines[next];
+      next = (next + 1) % lines.length;
+      return line;
+    }
+  }
+}
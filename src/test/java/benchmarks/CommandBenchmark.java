@@ -0,0 +1,126 @@
+package benchmarks;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import session.Session;
+import ui.MainUi;
+import ui.NoTranscript;
+
+//команды трекера целиком через MainUi.showUi и processCommand: одна операция - одна команда
+//со сценарием ввода до 'back'; консольный вывод отбрасывается, копия вывода
+//не ведется, как в рабочем режиме
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class CommandBenchmark {
+
+  @Param({"1000", "100000", "1000000"})
+  private int students;
+
+  private final Cohort.ScriptedInput input = new Cohort.ScriptedInput();
+  private MainUi mainUi;
+  private PrintStream systemOut;
+  private int nextEmail;
+
+  @Setup(Level.Trial)
+  public void setUpUi() {
+    systemOut = System.out;
+    System.setOut(Cohort.NULL_OUTPUT);
+    mainUi = new MainUi(new Session());
+    mainUi.setInputReader(input);
+    mainUi.setTranscript(new NoTranscript());
+  }
+
+  //add students наращивает хранилище, поэтому когорта пересоздается на каждой итерации
+  @Setup(Level.Iteration)
+  public void populate() throws ReflectiveOperationException {
+    Cohort.populate(students, 42);
+    nextEmail = 0;
+  }
+
+  @TearDown(Level.Trial)
+  public void restoreOutput() {
+    System.setOut(systemOut);
+  }
+
+  @Benchmark
+  public String addStudents() {
+    input.setScript("add students", "Alex Hunter new" + nextEmail++ + "@gmail.com", "back");
+    return mainUi.showUi();
+  }
+
+  @Benchmark
+  public String addPoints() {
+    input.setScript("add points", (nextEmail++ % students + 1) + " 1 0 2 1", "back");
+    return mainUi.showUi();
+  }
+
+  @Benchmark
+  public String find() {
+    input.setScript("find", Integer.toString(nextEmail++ % students + 1), "back");
+    return mainUi.showUi();
+  }
+
+  @Benchmark
+  public String list() {
+    input.setScript("list");
+    return mainUi.showUi();
+  }
+
+  @Benchmark
+  public String listPage() {
+    input.setScript("list page 5");
+    return mainUi.showUi();
+  }
+
+  @Benchmark
+  public String statistics() {
+    input.setScript("statistics", "back");
+    return mainUi.showUi();
+  }
+
+  @Benchmark
+  public String courseDetails() {
+    input.setScript("statistics", "Java", "back");
+    return mainUi.showUi();
+  }
+
+  @Benchmark
+  public String courseTop() {
+    input.setScript("statistics", "Java top 10", "back");
+    return mainUi.showUi();
+  }
+
+  @Benchmark
+  public String notifyStudents() {
+    input.setScript("notify");
+    return mainUi.showUi();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(CommandBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build()).run();
+  }
+}
@@ -0,0 +1,102 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import db.TempStudentStorage;
+import entities.CourseCatalog;
+import entities.CourseDefinition;
+import entities.Student;
+import enums.PointsParseResult;
+import input.PointsParser;
+
+//строка "add points" для каталога из courses курсов: разбор и начисление по всем курсам.
+//addPointsPerCourse начисляет курсы по одному, как до Student.addPoints
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class CourseWidthBenchmark {
+
+  private static final int STUDENTS = 10_000;
+
+  @Param({"4", "64"})
+  private int courses;
+
+  private PointsParser parser;
+  private String[] lines;
+  private int next;
+
+  @Setup
+  public void populate() throws ReflectiveOperationException {
+    List<CourseDefinition> definitions = new ArrayList<>();
+    for (int course = 1; course <= courses; course++) {
+      definitions.add(new CourseDefinition(course, "Course" + course, 1_000_000));
+    }
+    CourseCatalog.setCurrent(CourseCatalog.of(definitions));
+    Cohort.populate(STUDENTS, 42);
+    parser = new PointsParser();
+    lines = new String[STUDENTS];
+    for (int id = 1; id <= STUDENTS; id++) {
+      StringBuilder line = new StringBuilder().append(id);
+      for (int course = 0; course < courses; course++) {
+        line.append(' ').append((id + course) % 3);
+      }
+      lines[id - 1] = line.toString();
+    }
+  }
+
+  @TearDown
+  public void restoreCatalog() {
+    CourseCatalog.setCurrent(CourseCatalog.defaults());
+    TempStudentStorage.setStudents(new ArrayList<>());
+  }
+
+  private Student parseNext() {
+    next = (next + 1) % STUDENTS;
+    if (parser.parse(lines[next]) != PointsParseResult.VALID) {
+      throw new IllegalStateException(lines[next]);
+    }
+    return TempStudentStorage.getStudentById(parser.getId()).get();
+  }
+
+  @Benchmark
+  public boolean addPoints() {
+    return parseNext().addPoints(parser.getPoints());
+  }
+
+  @Benchmark
+  public Student addPointsPerCourse() {
+    Student student = parseNext();
+    int[] points = parser.getPoints();
+    for (int course = 0; course < points.length; course++) {
+      student.addPoint(course, points[course]);
+    }
+    return student;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(CourseWidthBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build()).run();
+  }
+}
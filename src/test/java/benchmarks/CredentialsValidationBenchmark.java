@@ -0,0 +1,95 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import entities.UnsavedStudent;
+import validation.CredentialsValidator;
+
+//пропускная способность проверки строк "add students": строки в секунду
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CredentialsValidationBenchmark {
+
+  private static final String[] LINES = {
+      "Alex Hunter hunter@gmail.com",
+      "Alex van der Last email@mail.ru",
+      "Alex-Hunter Lastname vrio@yandex.ru",
+      "Alex Meat-Hunter fast@gmail.com",
+      "Jean-Claude O'Connor jcda@google.net",
+      "A Hunter hunter@gmail.com",
+      "Alex H hunter@gmail.com",
+      "Alex Hunter hunter.gmail.com",
+      "Alex hunter@gmail.com",
+      "Mary Jane Watson-Parker mj.watson@dailybugle.com"
+  };
+
+  private final CredentialsValidator validator = new CredentialsValidator();
+
+  @Benchmark
+  @OperationsPerInvocation(10)
+  public void precompiledValidator(Blackhole blackhole) {
+    for (String line : LINES) {
+      blackhole.consume(validator.validate(line));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(10)
+  public void compilePerLine(Blackhole blackhole) {
+    for (String line : LINES) {
+      if (isCorrectCredentials(line)) {
+        blackhole.consume(registerStudent(line));
+      } else {
+        blackhole.consume(false);
+      }
+    }
+  }
+
+  //прежний путь MainUi: компиляция шаблонов на каждую строку и повторный разбор при регистрации
+  private static boolean isCorrectCredentials(String credentials) {
+    Pattern pattern = Pattern.compile("^(\\S+)\\s(.+)\\s(.+)$");
+    Matcher matcher = pattern.matcher(credentials);
+    if (!matcher.find()) {
+      return false;
+    }
+    if (!matcher.group(1).trim().matches("\\w+[\\-']?\\w+")) {
+      return false;
+    }
+    if (!matcher.group(2).trim().matches("(\\w+[\\-']?\\w+([\\-']?\\w+)?\\s?)+")) {
+      return false;
+    }
+    return matcher.group(3).trim().matches("[\\w\\.]+@\\w+\\.\\w+");
+  }
+
+  private static UnsavedStudent registerStudent(String student) {
+    Pattern pattern = Pattern.compile("^(\\S+)\\s(.+)\\s(.+)$");
+    Matcher matcher = pattern.matcher(student);
+    matcher.find();
+    return new UnsavedStudent(matcher.group(1), matcher.group(2), matcher.group(3));
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(CredentialsValidationBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
@@ -0,0 +1,103 @@
+package benchmarks;
+
+import enums.Command;
+import enums.Course;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+//разбор одной строки ввода: команда, 'back' в цикле ввода и имя курса в статистике.
+//*Streams - прежний перебор values() через Stream, для сравнения с таблицей имен
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DispatchBenchmark {
+
+  private static final String[] COMMANDS = {"add points", "list page 5", "STATISTICS",
+      "import students data.csv", "back", "unknown command"};
+  private static final String[] LINES = {"back", "1 10 10 10 10", "Alex Hunter a@b.com"};
+  private static final String[] COURSES = {"Java", "databases", " Spring ", "Kotlin"};
+
+  @Benchmark
+  public void commands(Blackhole blackhole) {
+    for (String input : COMMANDS) {
+      blackhole.consume(Command.find(input));
+    }
+  }
+
+  @Benchmark
+  public void commandsStreams(Blackhole blackhole) {
+    for (String input : COMMANDS) {
+      blackhole.consume(findByStreams(input));
+    }
+  }
+
+  @Benchmark
+  public void back(Blackhole blackhole) {
+    for (String input : LINES) {
+      blackhole.consume(Command.find(input) == Command.BACK);
+    }
+  }
+
+  @Benchmark
+  public void backStreams(Blackhole blackhole) {
+    for (String input : LINES) {
+      blackhole.consume(findByStreams(input) == Command.BACK);
+    }
+  }
+
+  @Benchmark
+  public void courses(Blackhole blackhole) {
+    for (String input : COURSES) {
+      blackhole.consume(Course.find(input));
+    }
+  }
+
+  @Benchmark
+  public void coursesStreams(Blackhole blackhole) {
+    for (String input : COURSES) {
+      blackhole.consume(Arrays.stream(Course.values())
+          .filter(course -> course.getName().equalsIgnoreCase(input.trim()))
+          .findFirst().orElse(null));
+    }
+  }
+
+  private static Command findByStreams(String input) {
+    return Arrays.stream(Command.values())
+        .filter(command -> matches(command, input))
+        .findFirst().orElse(null);
+  }
+
+  private static boolean matches(Command command, String input) {
+    String description = command.getDescription();
+    //у команды есть аргументы, если getArguments их выделяет
+    boolean hasArguments = !command.getArguments(description + " x").isEmpty();
+    return description.equalsIgnoreCase(input) || hasArguments
+        && input.length() > description.length()
+        && Character.isWhitespace(input.charAt(description.length()))
+        && input.regionMatches(true, 0, description, 0, description.length());
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(DispatchBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build()).run();
+  }
+}
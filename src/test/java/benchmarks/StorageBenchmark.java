@@ -0,0 +1,97 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import db.CourseStatistics;
+import db.TempStudentStorage;
+import entities.Student;
+
+//операции хранилища и студента без разбора ввода и вывода
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class StorageBenchmark {
+
+  private static final int[] POINTS = new int[]{1, 0, 2, 1};
+
+  @Param({"1000", "100000", "1000000"})
+  private int students;
+
+  private int nextId;
+
+  @Setup
+  public void populate() throws ReflectiveOperationException {
+    Cohort.populate(students, 42);
+  }
+
+  private int nextId() {
+    nextId = nextId % students + 1;
+    return nextId;
+  }
+
+  @Benchmark
+  public Object getStudentById() {
+    return TempStudentStorage.getStudentById(nextId());
+  }
+
+  @Benchmark
+  public boolean isRegisteredEmail() {
+    return TempStudentStorage.isRegisteredEmail("Student" + nextId() + "@mail.com");
+  }
+
+  @Benchmark
+  public boolean updatePoints() {
+    return TempStudentStorage.getStudentById(nextId()).get()
+        .updatePoints(Cohort.SUBJECTS_ID, POINTS);
+  }
+
+  @Benchmark
+  public String[] subjectStats() {
+    Student student = TempStudentStorage.getStudentById(nextId()).get();
+    return student.getAcademicSubjectStats("java");
+  }
+
+  @Benchmark
+  public long courseStatistics() {
+    return TempStudentStorage.getStatistics().getEnrolled(nextId() & 3);
+  }
+
+  //полный пересчет агрегатов по хранилищу, как при загрузке снимка
+  @Benchmark
+  public long aggregateSequential() {
+    CourseStatistics statistics = new CourseStatistics();
+    statistics.addStudents(TempStudentStorage.getStudents(), Integer.MAX_VALUE);
+    return statistics.getEnrolledStudents();
+  }
+
+  @Benchmark
+  public long aggregateParallel() {
+    CourseStatistics statistics = new CourseStatistics();
+    statistics.addStudents(TempStudentStorage.getStudents(), 1);
+    return statistics.getEnrolledStudents();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(StorageBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build()).run();
+  }
+}
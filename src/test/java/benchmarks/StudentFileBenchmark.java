@@ -0,0 +1,109 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import db.TempStudentStorage;
+import entities.Student;
+import entities.UnsavedStudent;
+
+//хранилище поверх файла записей: обращение к студенту, начисление баллов в запись
+//и открытие файла с построением индекса email и агрегатов
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class StudentFileBenchmark {
+
+  private static final int[] POINTS = new int[]{1, 0, 2, 1};
+
+  @Param({"100000", "1000000"})
+  private int students;
+
+  private Path directory;
+  private Path store;
+  private int nextId;
+
+  @Setup
+  public void populate() throws IOException {
+    directory = Files.createTempDirectory("students");
+    store = directory.resolve("students.db");
+    TempStudentStorage.setStudents(new ArrayList<>());
+    TempStudentStorage.openStore(store);
+    SplittableRandom random = new SplittableRandom(42);
+    int[] points = new int[Student.getCoursesCount()];
+    for (int i = 1; i <= students; i++) {
+      Student student = new UnsavedStudent("Name", "Lastname", "student" + i + "@mail.com");
+      TempStudentStorage.addStudent(student);
+      for (int course = 0; course < points.length; course++) {
+        points[course] = random.nextInt(4) == 0 ? 0 : random.nextInt(1, 120);
+      }
+      student.addPoints(points);
+    }
+  }
+
+  @TearDown
+  public void deleteStore() throws IOException {
+    TempStudentStorage.closeStore();
+    Files.deleteIfExists(store);
+    Files.deleteIfExists(store.resolveSibling(store.getFileName() + ".strings"));
+    Files.deleteIfExists(directory);
+  }
+
+  private int nextId() {
+    nextId = nextId % students + 1;
+    return nextId;
+  }
+
+  @Benchmark
+  public Object getStudentById() {
+    return TempStudentStorage.getStudentById(nextId());
+  }
+
+  @Benchmark
+  public String getEmail() {
+    return TempStudentStorage.getStudentById(nextId()).get().getEmail();
+  }
+
+  @Benchmark
+  public boolean addPoints() {
+    return TempStudentStorage.getStudentById(nextId()).get().addPoints(POINTS);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public int reopen() throws IOException {
+    TempStudentStorage.closeStore();
+    TempStudentStorage.openStore(store);
+    return TempStudentStorage.getStudents().size();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(StudentFileBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build()).run();
+  }
+}